@@ -0,0 +1,42 @@
+package com.vmtecnologia.vm_teste_tecnico.benchmark;
+
+import com.vmtecnologia.vm_teste_tecnico.config.JwtAuthenticationToken;
+import com.vmtecnologia.vm_teste_tecnico.config.JwtKeyRing;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construção do JwtAuthenticationToken a partir dos claims já verificados, feita a cada requisição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorityExtractionBenchmark {
+
+    private Claims claims;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = BenchmarkFixtures.keyRing("HS256");
+        claims = keyRing.getJwtParser()
+                .parseSignedClaims(BenchmarkFixtures.issue(keyRing, "ADMIN"))
+                .getPayload();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public JwtAuthenticationToken authenticationToken() {
+        return new JwtAuthenticationToken(claims);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public JwtAuthenticationToken authenticationTokenConcurrent() {
+        return new JwtAuthenticationToken(claims);
+    }
+}
@@ -0,0 +1,91 @@
+package com.vmtecnologia.vm_teste_tecnico.benchmark;
+
+import com.vmtecnologia.vm_teste_tecnico.config.JwtConfig;
+import com.vmtecnologia.vm_teste_tecnico.config.JwtKeyRing;
+import com.vmtecnologia.vm_teste_tecnico.config.JwtSigningProperties;
+import com.vmtecnologia.vm_teste_tecnico.config.RoleAuthorities;
+import com.vmtecnologia.vm_teste_tecnico.config.TokenDigest;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import com.vmtecnologia.vm_teste_tecnico.service.TokenEpochService;
+import com.vmtecnologia.vm_teste_tecnico.service.TokenRevocationStore;
+import io.jsonwebtoken.Jwts;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Montagem dos componentes do caminho de autenticação sem subir o contexto Spring.
+ */
+final class BenchmarkFixtures {
+
+    static final String USERNAME = "vinicius.vmtech";
+    static final long TOKEN_VERSION = 1L;
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtConfig jwtConfig() {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret("Ab1!Xy9@Lu3#Pq7^ZrLm*Go2$TxQCsaeaefdf");
+        jwtConfig.setExpirationTime(900_000L);
+        return jwtConfig;
+    }
+
+    static JwtKeyRing keyRing(String algorithm) {
+        return new JwtKeyRing(jwtConfig(), new JwtSigningProperties(algorithm, null, List.of(), true));
+    }
+
+    /**
+     * Mesmo formato de token emitido por AuthService.generateToken.
+     */
+    static String issue(JwtKeyRing keyRing, String role) {
+        Instant now = Instant.now();
+        return keyRing.getActiveSigningKey()
+                .signWith(Jwts.builder()
+                        .subject(USERNAME)
+                        .claim(TokenEpochService.CLAIM, TOKEN_VERSION)
+                        .claim(RoleAuthorities.CLAIM, RoleAuthorities.claimFor(role))
+                        .issuedAt(Date.from(now))
+                        .expiration(Date.from(now.plusSeconds(3600))))
+                .compact();
+    }
+
+    static TokenEpochService epochService() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findTokenVersionByUsername(anyString())).thenReturn(Optional.of(TOKEN_VERSION));
+        return new TokenEpochService(userRepository, 60_000, 10_000);
+    }
+
+    /**
+     * Store vazio: mede apenas o near-cache local, como em um nó já sincronizado.
+     */
+    static TokenRevocationStore emptyStore() {
+        return new TokenRevocationStore() {
+            @Override
+            public void save(TokenDigest digest, long expiresAtMillis) {
+            }
+
+            @Override
+            public boolean contains(TokenDigest digest) {
+                return false;
+            }
+
+            @Override
+            public Instant forEachRevokedSince(Instant since, long nowMillis, Consumer<Revocation> consumer) {
+                return since;
+            }
+
+            @Override
+            public int purgeExpired(long nowMillis) {
+                return 0;
+            }
+        };
+    }
+}
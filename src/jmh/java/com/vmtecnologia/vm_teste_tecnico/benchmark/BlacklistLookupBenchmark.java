@@ -0,0 +1,79 @@
+package com.vmtecnologia.vm_teste_tecnico.benchmark;
+
+import com.vmtecnologia.vm_teste_tecnico.config.TokenDigest;
+import com.vmtecnologia.vm_teste_tecnico.service.TokenBlacklistService;
+import com.vmtecnologia.vm_teste_tecnico.service.TokenVerificationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenBlacklistService.isTokenBlacklisted com 10 mil e 1 milhão de revogações ativas.
+ * O caso comum é o token não revogado, respondido pelo filtro de Bloom.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BlacklistLookupBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int revokedTokens;
+
+    private TokenBlacklistService blacklistService;
+    private TokenDigest revoked;
+    private TokenDigest notRevoked;
+    private String notRevokedToken;
+
+    @Setup
+    public void setUp() {
+        TokenVerificationService verificationService =
+                new TokenVerificationService(BenchmarkFixtures.keyRing("HS256"), 10_000);
+        blacklistService = new TokenBlacklistService(
+                verificationService, BenchmarkFixtures.emptyStore(), 1_000_000, 0.01, 5_000);
+        blacklistService.init();
+
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        for (int i = 0; i < revokedTokens; i++) {
+            blacklistService.revoke(TokenDigest.of("revogado-" + i), expiresAt);
+        }
+        revoked = TokenDigest.of("revogado-" + (revokedTokens / 2));
+        notRevokedToken = BenchmarkFixtures.issue(BenchmarkFixtures.keyRing("HS256"), "USER");
+        notRevoked = TokenDigest.of(notRevokedToken);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean miss() {
+        return blacklistService.isTokenBlacklisted(notRevoked);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean hit() {
+        return blacklistService.isTokenBlacklisted(revoked);
+    }
+
+    /**
+     * Inclui o SHA-256 do token, como no filtro.
+     */
+    @Benchmark
+    @Threads(1)
+    public boolean missWithDigest() {
+        return blacklistService.isTokenBlacklisted(notRevokedToken);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean missConcurrent() {
+        return blacklistService.isTokenBlacklisted(notRevoked);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean hitConcurrent() {
+        return blacklistService.isTokenBlacklisted(revoked);
+    }
+}
@@ -0,0 +1,40 @@
+package com.vmtecnologia.vm_teste_tecnico.benchmark;
+
+import com.vmtecnologia.vm_teste_tecnico.config.JwtKeyRing;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de AuthService.generateToken para cada algoritmo de assinatura suportado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenIssuanceBenchmark {
+
+    @Param({"HS256", "ES256", "EdDSA"})
+    private String algorithm;
+
+    private JwtKeyRing keyRing;
+
+    @Setup
+    public void setUp() {
+        keyRing = BenchmarkFixtures.keyRing(algorithm);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String issue() {
+        return BenchmarkFixtures.issue(keyRing, "USER");
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String issueConcurrent() {
+        return BenchmarkFixtures.issue(keyRing, "USER");
+    }
+}
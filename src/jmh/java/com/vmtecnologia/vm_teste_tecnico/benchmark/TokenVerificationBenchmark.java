@@ -0,0 +1,106 @@
+package com.vmtecnologia.vm_teste_tecnico.benchmark;
+
+import com.vmtecnologia.vm_teste_tecnico.config.JwtKeyRing;
+import com.vmtecnologia.vm_teste_tecnico.config.filters.JwtAuthenticationFilter;
+import com.vmtecnologia.vm_teste_tecnico.service.TokenBlacklistService;
+import com.vmtecnologia.vm_teste_tecnico.service.TokenVerificationService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificação de tokens: parse completo com checagem de assinatura, acerto no cache de claims
+ * e o filtro inteiro (Bearer + blacklist + cache + época + authorities) por requisição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenVerificationBenchmark {
+
+    @Param({"HS256", "ES256"})
+    private String algorithm;
+
+    private JwtKeyRing keyRing;
+    private String token;
+    private TokenVerificationService verificationService;
+    private JwtAuthenticationFilter filter;
+
+    @Setup
+    public void setUp() {
+        keyRing = BenchmarkFixtures.keyRing(algorithm);
+        token = BenchmarkFixtures.issue(keyRing, "USER");
+        verificationService = new TokenVerificationService(keyRing, 10_000);
+
+        TokenBlacklistService blacklistService = new TokenBlacklistService(
+                verificationService, BenchmarkFixtures.emptyStore(), 1_000_000, 0.01, 5_000);
+        blacklistService.init();
+        filter = new JwtAuthenticationFilter(blacklistService, verificationService, BenchmarkFixtures.epochService());
+    }
+
+    /**
+     * Cada thread reaproveita sua requisição; o OncePerRequestFilter remove o próprio atributo ao final.
+     */
+    @State(Scope.Thread)
+    public static class Exchange {
+
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+        FilterChain chain;
+
+        @Setup
+        public void setUp(TokenVerificationBenchmark benchmark) {
+            request = new MockHttpServletRequest("GET", "/vmtech/users");
+            request.addHeader("Authorization", "Bearer " + benchmark.token);
+            response = new MockHttpServletResponse();
+            chain = (req, res) -> {
+            };
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Claims parseUncached() {
+        return keyRing.getJwtParser().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Claims verifyCached() {
+        return verificationService.verify(token);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Claims verifyCachedConcurrent() {
+        return verificationService.verify(token);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object filter(Exchange exchange) throws ServletException, IOException {
+        return doFilter(exchange);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object filterConcurrent(Exchange exchange) throws ServletException, IOException {
+        return doFilter(exchange);
+    }
+
+    private Object doFilter(Exchange exchange) throws ServletException, IOException {
+        filter.doFilter(exchange.request, exchange.response, exchange.chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
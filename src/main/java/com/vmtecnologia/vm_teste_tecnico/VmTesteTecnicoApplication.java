@@ -2,8 +2,10 @@ package com.vmtecnologia.vm_teste_tecnico;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class VmTesteTecnicoApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,132 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import com.vmtecnologia.vm_teste_tecnico.exception.PasswordHashingRejectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Executa o BCrypt em um pool do tamanho do número de núcleos com fila limitada. Rajadas de login
+ * ou cadastro passam a ser recusadas rapidamente em vez de ocupar todas as threads do Tomcat.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 16;
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final PasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity) {
+        this(new BCryptPasswordEncoder(strength), strength, threads, queueCapacity);
+    }
+
+    BoundedPasswordEncoder(PasswordEncoder delegate, int strength, int threads, int queueCapacity) {
+        this.delegate = delegate;
+        this.strength = strength;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Escolhe o maior custo cujo tempo estimado não ultrapassa a latência alvo, nunca abaixo de 10.
+     * Cada incremento de custo dobra o tempo, então basta medir o custo mínimo.
+     */
+    public static int calibrate(long targetLatencyMillis) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        probe.encode("aquecimento");
+
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibracao");
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && bestNanos << (strength + 1 - MIN_STRENGTH) <= targetNanos) {
+            strength++;
+        }
+        log.info("Custo do BCrypt calibrado em {} (custo {} levou {} ms; alvo {} ms)",
+                strength, MIN_STRENGTH, TimeUnit.NANOSECONDS.toMillis(bestNanos), targetLatencyMillis);
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Sinaliza hashes com custo abaixo do atual, para que sejam refeitos no próximo login bem-sucedido.
+     * Custos maiores são mantidos: nós com outro custo não reescrevem os hashes uns dos outros nem os
+     * enfraquecem.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    int queuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException e) {
+            log.warn("Fila de hashing de senhas cheia ({} tarefas); requisição recusada", executor.getQueue().size());
+            throw new PasswordHashingRejectedException("Serviço temporariamente sobrecarregado, tente novamente", e);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hashing de senha interrompido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+/**
+ * Métricas de um {@link ConnectionBulkhead}, publicadas via JMX
+ * ({@code com.vmtecnologia.vm_teste_tecnico:type=ConnectionBulkhead,name=<pool>}).
+ */
+public interface ConnectionBulkheadMXBean {
+
+    int getMaxPermits();
+
+    int getActivePermits();
+
+    int getQueueDepth();
+
+    long getAcquisitions();
+
+    long getTimeouts();
+
+    double getAverageWaitMillis();
+
+    long getMaxWaitMillis();
+}
@@ -0,0 +1,73 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Envolve cada pool Hikari da aplicação num {@link ConnectionBulkhead} com tantas licenças quanto
+ * conexões no pool, e publica as métricas de cada um via JMX. As réplicas de leitura, que não são
+ * beans, são envolvidas por {@link DataSourceRoutingConfig} através de {@link #wrap}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datasource.bulkhead.enabled", matchIfMissing = true)
+public class ConnectionBulkheadPostProcessor implements BeanPostProcessor, EnvironmentAware, DisposableBean {
+
+    private final List<ObjectName> registered = new CopyOnWriteArrayList<>();
+    private Duration timeout;
+
+    // BeanPostProcessors são criados antes da resolução de @Value; a configuração vem do Environment
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.timeout = Duration.ofMillis(environment.getProperty("datasource.bulkhead.timeout", Long.class, 120000L));
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return bean instanceof HikariDataSource pool ? wrap(pool, beanName) : bean;
+    }
+
+    public DataSource wrap(HikariDataSource pool, String name) {
+        ConnectionBulkhead bulkhead = new ConnectionBulkhead(pool, pool.getMaximumPoolSize(), timeout);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName("com.vmtecnologia.vm_teste_tecnico:type=ConnectionBulkhead,name=" + name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(bulkhead, objectName);
+            registered.add(objectName);
+        } catch (JMException e) {
+            log.warn("Não foi possível publicar as métricas do bulkhead {} via JMX", name, e);
+        }
+        log.info("Bulkhead de conexões {} com {} licenças (espera máxima {})", name, pool.getMaximumPoolSize(), timeout);
+        return bulkhead;
+    }
+
+    @Override
+    public void destroy() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : registered) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                log.debug("Bulkhead {} já removido do JMX", objectName, e);
+            }
+        }
+    }
+}
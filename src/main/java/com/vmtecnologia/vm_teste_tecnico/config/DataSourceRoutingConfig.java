@@ -0,0 +1,63 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ativado quando há ao menos uma réplica em {@code datasource.routing.replicas}. O primário continua
+ * configurado por {@code spring.datasource}; Flyway e transações de escrita vão para ele. Os repositórios
+ * do Spring Data abrem transação {@code readOnly} por conta própria, então mesmo consultas avulsas vão às
+ * réplicas: leituras que não toleram atraso de replicação (revogação, épocas de token, credenciais,
+ * unicidade, recarga de cache) usam {@link ReadReplicaRoutingDataSource#onPrimary}.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(name = "datasource.routing.replicas[0].url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                                     ReadReplicaProperties properties,
+                                                                     ObjectProvider<ConnectionBulkheadPostProcessor> bulkheads) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReadReplicaProperties.Replica replica : properties.replicas()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + replicas.size());
+            dataSource.setJdbcUrl(replica.url());
+            dataSource.setUsername(replica.username());
+            dataSource.setPassword(replica.password());
+            dataSource.setMaximumPoolSize(replica.maximumPoolSize());
+            dataSource.setReadOnly(true);
+            ConnectionBulkheadPostProcessor bulkhead = bulkheads.getIfAvailable();
+            replicas.add(bulkhead != null ? bulkhead.wrap(dataSource, dataSource.getPoolName()) : dataSource);
+        }
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicas, properties.readYourWritesWindow());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+}
@@ -3,12 +3,10 @@ package com.vmtecnologia.vm_teste_tecnico.config;
 import io.jsonwebtoken.Claims;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 public class JwtAuthenticationToken extends AbstractAuthenticationToken {
@@ -17,23 +15,21 @@ public class JwtAuthenticationToken extends AbstractAuthenticationToken {
     private final String credentials;
     private final Claims claims;
 
+    // Lista compartilhada de RoleAuthorities; não é copiada a cada requisição
+    private final List<GrantedAuthority> authorities;
+
     public JwtAuthenticationToken(Claims claims) {
-        super(extractAuthorities(claims));
+        super(AuthorityUtils.NO_AUTHORITIES);
         this.principal = claims.getSubject();
         this.credentials = null;
         this.claims = claims;
+        this.authorities = RoleAuthorities.fromClaims(claims);
         super.setAuthenticated(true);
     }
 
-    private static Collection<? extends GrantedAuthority> extractAuthorities(Claims claims) {
-        // Extrai roles do token JWT (ajuste conforme sua implementação)
-        List<String> roles = claims.get("roles", List.class);
-        if (roles == null) {
-            return Collections.emptyList();
-        }
-        return roles.stream()
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return this.authorities;
     }
 
     @Override
@@ -3,12 +3,14 @@ package com.vmtecnologia.vm_teste_tecnico.config;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 
 @Configuration
+@EnableConfigurationProperties(JwtSigningProperties.class)
 public class JwtConfig {
 
     @Value("${jwt.secret}")
@@ -17,6 +19,12 @@ public class JwtConfig {
     @Value("${jwt.expiration}")
     private long expirationTime;
 
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpirationTime;
+
+    // Derivada do secret uma única vez
+    private volatile SecretKey secretKey;
+
     @PostConstruct
     public void validate() {
         if (secret == null || secret.length() < 32) {
@@ -25,19 +33,32 @@ public class JwtConfig {
     }
 
     public SecretKey getSecretKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        SecretKey key = secretKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            secretKey = key;
+        }
+        return key;
     }
 
     public long getExpirationTime() {
         return expirationTime;
     }
 
+    public long getRefreshExpirationTime() {
+        return refreshExpirationTime;
+    }
+
     public void setSecret(String secret) {
         this.secret = secret;
+        this.secretKey = null;
     }
 
     public void setExpirationTime(long expirationTime) {
         this.expirationTime = expirationTime;
     }
-}
 
+    public void setRefreshExpirationTime(long refreshExpirationTime) {
+        this.refreshExpirationTime = refreshExpirationTime;
+    }
+}
@@ -0,0 +1,182 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import io.jsonwebtoken.*;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.security.*;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Conjunto de chaves de assinatura indexado por {@code kid}.
+ * <p>
+ * A rotação sem indisponibilidade é feita por configuração: a nova chave é publicada
+ * (e passa a ser aceita) antes de virar a {@code active-kid}, e a antiga só é removida
+ * depois que os tokens assinados com ela expiram.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    private static final String HMAC = "HS256";
+
+    private final JwtConfig jwtConfig;
+    private final SignatureAlgorithm algorithm;
+    private final Map<String, PublicKey> verificationKeys;
+    private final SigningKey activeSigningKey;
+    private final JwtParser jwtParser;
+    private final String jwks;
+
+    public JwtKeyRing(JwtConfig jwtConfig, JwtSigningProperties properties) {
+        this.jwtConfig = jwtConfig;
+        this.algorithm = resolveAlgorithm(properties.algorithm());
+
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        Map<String, PrivateKey> privateKeys = new HashMap<>();
+        if (algorithm != null) {
+            loadKeys(properties, publicKeys, privateKeys);
+        }
+
+        this.verificationKeys = Map.copyOf(publicKeys);
+        this.activeSigningKey = resolveSigningKey(properties.activeKid(), privateKeys);
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new KidLocator())
+                .build();
+        this.jwks = buildJwks();
+    }
+
+    public SigningKey getActiveSigningKey() {
+        return activeSigningKey;
+    }
+
+    public JwtParser getJwtParser() {
+        return jwtParser;
+    }
+
+    /**
+     * JWK Set (RFC 7517) com as chaves públicas aceitas; vazio no modo HS256.
+     */
+    public String getJwks() {
+        return jwks;
+    }
+
+    private SignatureAlgorithm resolveAlgorithm(String name) {
+        if (!StringUtils.hasText(name) || HMAC.equalsIgnoreCase(name)) {
+            return null;
+        }
+        return switch (name.toUpperCase(Locale.ROOT)) {
+            case "ES256" -> Jwts.SIG.ES256;
+            case "EDDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalStateException("Algoritmo JWT não suportado: " + name);
+        };
+    }
+
+    private void loadKeys(JwtSigningProperties properties,
+                          Map<String, PublicKey> publicKeys,
+                          Map<String, PrivateKey> privateKeys) {
+        String keyFactoryAlgorithm = algorithm == Jwts.SIG.ES256 ? "EC" : "Ed25519";
+
+        for (JwtSigningProperties.Key key : properties.keys()) {
+            if (!StringUtils.hasText(key.kid()) || !StringUtils.hasText(key.publicKey())) {
+                throw new IllegalStateException("Chaves JWT exigem kid e public-key");
+            }
+            try {
+                KeyFactory keyFactory = KeyFactory.getInstance(keyFactoryAlgorithm);
+                publicKeys.put(key.kid(), keyFactory.generatePublic(new X509EncodedKeySpec(decode(key.publicKey()))));
+                if (StringUtils.hasText(key.privateKey())) {
+                    privateKeys.put(key.kid(), keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decode(key.privateKey()))));
+                }
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                throw new IllegalStateException("Chave JWT inválida: " + key.kid(), e);
+            }
+        }
+
+        if (publicKeys.isEmpty()) {
+            // Chave efêmera: cada nó assinaria com a sua e os tokens não valeriam nos demais nem após reinícios
+            if (!properties.allowEphemeralKey()) {
+                throw new IllegalStateException("Nenhuma chave " + algorithm.getId() + " configurada em jwt.signing.keys; "
+                        + "chave efêmera só com jwt.signing.allow-ephemeral-key (perfil dev)");
+            }
+            KeyPair keyPair = algorithm == Jwts.SIG.ES256
+                    ? Jwts.SIG.ES256.keyPair().build()
+                    : Jwks.CRV.Ed25519.keyPair().build();
+            String kid = UUID.randomUUID().toString();
+            publicKeys.put(kid, keyPair.getPublic());
+            privateKeys.put(kid, keyPair.getPrivate());
+            log.warn("Nenhuma chave {} configurada em jwt.signing.keys; usando chave efêmera {}", algorithm.getId(), kid);
+        }
+    }
+
+    private SigningKey resolveSigningKey(String activeKid, Map<String, PrivateKey> privateKeys) {
+        if (algorithm == null) {
+            return new SigningKey(null, jwtConfig.getSecretKey(), null);
+        }
+
+        String kid = StringUtils.hasText(activeKid) ? activeKid
+                : privateKeys.size() == 1 ? privateKeys.keySet().iterator().next() : null;
+        PrivateKey privateKey = kid == null ? null : privateKeys.get(kid);
+        if (privateKey == null) {
+            throw new IllegalStateException("jwt.signing.active-kid deve apontar para uma chave com private-key");
+        }
+        return new SigningKey(kid, privateKey, algorithm);
+    }
+
+    private String buildJwks() {
+        String keys = verificationKeys.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> Jwks.json(Jwks.builder()
+                        .key(entry.getValue())
+                        .id(entry.getKey())
+                        .algorithm(algorithm.getId())
+                        .build()))
+                .collect(Collectors.joining(","));
+        return "{\"keys\":[" + keys + "]}";
+    }
+
+    private static byte[] decode(String encoded) {
+        String base64 = encoded.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    /**
+     * Tokens com {@code kid} são verificados pela chave pública correspondente (busca O(1)).
+     * Tokens sem {@code kid} são os emitidos com o secret HMAC e só valem no modo HS256: em ES256/EdDSA
+     * aceitá-los permitiria forjar tokens com o {@code jwt.secret}, que não é segredo da assinatura.
+     */
+    private final class KidLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String kid = header.getKeyId();
+            if (kid == null) {
+                if (algorithm != null) {
+                    throw new UnsupportedJwtException("Token sem kid não é aceito em " + algorithm.getId());
+                }
+                return jwtConfig.getSecretKey();
+            }
+            PublicKey key = verificationKeys.get(kid);
+            if (key == null) {
+                throw new UnsupportedJwtException("Chave de assinatura desconhecida: " + kid);
+            }
+            return key;
+        }
+    }
+
+    public record SigningKey(String kid, Key key, SignatureAlgorithm algorithm) {
+
+        public JwtBuilder signWith(JwtBuilder builder) {
+            if (algorithm == null) {
+                return builder.signWith(key);
+            }
+            return builder
+                    .header().keyId(kid).and()
+                    .signWith((PrivateKey) key, algorithm);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Chaves de assinatura dos tokens. Em modo HS256 apenas o {@code jwt.secret} é usado;
+ * em ES256/EdDSA cada chave é identificada pelo seu {@code kid}.
+ *
+ * @param algorithm HS256, ES256 ou EdDSA
+ * @param activeKid chave usada para assinar novos tokens
+ * @param keys      chaves conhecidas; chaves sem {@code private-key} apenas verificam
+ * @param allowEphemeralKey sem chaves configuradas, gera uma chave em memória em vez de falhar a subida;
+ *                          só para desenvolvimento (perfil {@code dev}), já que cada nó teria a sua
+ */
+@ConfigurationProperties(prefix = "jwt.signing")
+public record JwtSigningProperties(
+        @DefaultValue("HS256") String algorithm,
+        String activeKid,
+        @DefaultValue List<Key> keys,
+        @DefaultValue("false") boolean allowEphemeralKey) {
+
+    /**
+     * @param privateKey PKCS#8 em Base64 (ou PEM)
+     * @param publicKey  X.509 SubjectPublicKeyInfo em Base64 (ou PEM)
+     */
+    public record Key(String kid, String privateKey, String publicKey) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limites do endpoint de login.
+ *
+ * @param maxConcurrent verificações de senha simultâneas; 0 usa o dobro do número de núcleos
+ * @param stripes       faixas por linha de cada limitador; define a memória usada, não o número de chaves
+ * @param username      limites por username
+ * @param ip            limites por IP de origem
+ */
+@ConfigurationProperties(prefix = "security.login")
+public record LoginThrottleProperties(
+        @DefaultValue("0") int maxConcurrent,
+        @DefaultValue("65536") int stripes,
+        @DefaultValue Limit username,
+        @DefaultValue Limit ip) {
+
+    /**
+     * @param ratePerMinute    tentativas sustentadas por minuto
+     * @param burst            tentativas permitidas em sequência
+     * @param lockoutThreshold falhas consecutivas até o primeiro bloqueio
+     * @param lockoutBaseMillis duração do primeiro bloqueio, dobrada a cada nova falha
+     * @param lockoutMaxMillis duração máxima do bloqueio
+     */
+    public record Limit(
+            @DefaultValue("10") int ratePerMinute,
+            @DefaultValue("5") int burst,
+            @DefaultValue("5") int lockoutThreshold,
+            @DefaultValue("1000") long lockoutBaseMillis,
+            @DefaultValue("900000") long lockoutMaxMillis) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Réplicas de leitura. Sem réplicas configuradas todo o tráfego continua no {@code spring.datasource}.
+ *
+ * @param replicas             pools de leitura, usados em rodízio por transações {@code readOnly}
+ * @param readYourWritesWindow após uma transação de escrita do usuário autenticado, as leituras dele
+ *                             ficam no primário por este tempo (atraso de replicação); zero desliga.
+ *                             O registro fica em memória de cada nó: sem afinidade de sessão no
+ *                             balanceador, a leitura seguinte pode cair em outro nó e ir à réplica
+ */
+@ConfigurationProperties(prefix = "datasource.routing")
+public record ReadReplicaProperties(
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("0s") Duration readYourWritesWindow) {
+
+    public record Replica(
+            String url,
+            String username,
+            String password,
+            @DefaultValue("5") int maximumPoolSize) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vmtecnologia.vm_teste_tecnico.util.AfterCommit;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Envia transações {@code readOnly} às réplicas (em rodízio) e o restante ao primário.
+ * Deve ficar atrás de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * a conexão só é escolhida no primeiro comando, quando o gerenciador de transações já marcou a
+ * transação como somente leitura.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    // Marcado por onPrimary: a conexão escolhida nesta thread vai ao primário mesmo em transações readOnly
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final List<DataSource> replicas;
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    // username -> escrita recente; nulo quando o read-your-writes está desligado
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration readYourWritesWindow) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.recentWriters = readYourWritesWindow.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+        initialize();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (recentWriters != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                String username = currentUsername();
+                if (username != null) {
+                    AfterCommit.run(() -> recentWriters.put(username, Boolean.TRUE));
+                }
+            }
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || PINNED_TO_PRIMARY.get() != null || wroteRecently()) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    /**
+     * Executa a ação com as leituras presas ao primário, para consultas que não toleram o atraso de
+     * replicação. Vale para as conexões escolhidas dentro do bloco (com o
+     * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, inclusive em uma
+     * transação {@code readOnly} aberta na entrada do método). Sem réplicas apenas executa a ação.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        boolean outermost = PINNED_TO_PRIMARY.get() == null;
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (outermost) {
+                PINNED_TO_PRIMARY.remove();
+            }
+        }
+    }
+
+    private boolean wroteRecently() {
+        if (recentWriters == null) {
+            return false;
+        }
+        String username = currentUsername();
+        return username != null && recentWriters.getIfPresent(username) != null;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caminho único entre o claim "roles" dos tokens e as authorities do Spring Security.
+ * As listas são imutáveis e compartilhadas: cada combinação de perfis é montada uma única vez.
+ */
+public final class RoleAuthorities {
+
+    public static final String CLAIM = "roles";
+
+    private static final String PREFIX = "ROLE_";
+
+    // Perfis vêm apenas de tokens já verificados, mas o limite evita crescimento sem controle
+    private static final int MAX_INTERNED = 256;
+
+    private static final Map<List<String>, List<GrantedAuthority>> INTERNED = new ConcurrentHashMap<>();
+
+    private RoleAuthorities() {
+    }
+
+    /**
+     * Valor do claim "roles" para o perfil do usuário.
+     */
+    public static List<String> claimFor(String role) {
+        return role == null ? List.of() : List.of(role);
+    }
+
+    public static List<GrantedAuthority> of(String role) {
+        return of(claimFor(role));
+    }
+
+    public static List<GrantedAuthority> fromClaims(Claims claims) {
+        Object roles = claims.get(CLAIM);
+        if (!(roles instanceof List<?> list) || list.isEmpty()) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>(list.size());
+        for (Object role : list) {
+            names.add(String.valueOf(role));
+        }
+        return of(names);
+    }
+
+    /**
+     * Nomes dos perfis (sem o prefixo ROLE_) a partir das authorities de uma autenticação.
+     */
+    public static List<String> roleNames(Collection<? extends GrantedAuthority> authorities) {
+        List<String> names = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(PREFIX)) {
+                names.add(name.substring(PREFIX.length()));
+            }
+        }
+        return List.copyOf(names);
+    }
+
+    private static List<GrantedAuthority> of(List<String> roles) {
+        if (roles.isEmpty()) {
+            return List.of();
+        }
+        List<GrantedAuthority> interned = INTERNED.get(roles);
+        if (interned != null) {
+            return interned;
+        }
+        List<GrantedAuthority> built = build(roles);
+        if (INTERNED.size() >= MAX_INTERNED) {
+            return built;
+        }
+        List<GrantedAuthority> previous = INTERNED.putIfAbsent(List.copyOf(roles), built);
+        return previous != null ? previous : built;
+    }
+
+    private static List<GrantedAuthority> build(List<String> roles) {
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            authorities.add(new SimpleGrantedAuthority(PREFIX + role));
+        }
+        return List.copyOf(authorities);
+    }
+}
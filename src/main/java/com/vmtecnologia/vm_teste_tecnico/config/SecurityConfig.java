@@ -2,9 +2,15 @@ package com.vmtecnologia.vm_teste_tecnico.config;
 
 import com.vmtecnologia.vm_teste_tecnico.config.filters.JwtAuthenticationFilter;
 import com.vmtecnologia.vm_teste_tecnico.service.TokenBlacklistService;
+import com.vmtecnologia.vm_teste_tecnico.service.TokenEpochService;
+import com.vmtecnologia.vm_teste_tecnico.service.TokenVerificationService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -19,27 +25,24 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
-import javax.crypto.SecretKey;
 import java.util.Arrays;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(LoginThrottleProperties.class)
 @RequiredArgsConstructor // Esta configuração não será carregada durante os testes
 public class SecurityConfig {
 
     private final JwtConfig jwtConfig;
     private final TokenBlacklistService tokenBlacklistService;
+    private final TokenVerificationService tokenVerificationService;
+    private final TokenEpochService tokenEpochService;
     private final UserDetailsService userDetailsService;
 
 
-    @Bean
-    public SecretKey secretKey() {
-        return jwtConfig.getSecretKey();
-    }
-
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(tokenBlacklistService, secretKey());
+        return new JwtAuthenticationFilter(tokenBlacklistService, tokenVerificationService, tokenEpochService);
     }
 
 
@@ -51,7 +54,12 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/vmtech/auth/login").permitAll()
+                        .requestMatchers("/vmtech/auth/refresh").permitAll()
+                        .requestMatchers("/vmtech/auth/jwks").permitAll()
                         .requestMatchers("/vmtech/auth/logout").authenticated()
+                        .requestMatchers("/vmtech/users/import/**", "/vmtech/users/export", "/vmtech/users/bulk").hasRole("ADMIN")
+                        // Respostas em streaming terminam num dispatch ASYNC já autorizado na requisição original
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .anyRequest().authenticated())
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
@@ -63,8 +71,8 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000", "http://frontend.com"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Custom-Header"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type", "If-None-Match", "If-Match"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Custom-Header", "ETag"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L); // 1 hora de cache para configurações CORS
 
@@ -74,19 +82,36 @@ public class SecurityConfig {
     }
 
     @Bean
-    public AuthenticationManager authenticationManager(HttpSecurity http) throws Exception {
+    public AuthenticationManager authenticationManager(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
         AuthenticationManagerBuilder authenticationManagerBuilder =
                 http.getSharedObject(AuthenticationManagerBuilder.class);
 
         authenticationManagerBuilder
                 .userDetailsService(userDetailsService)
-                .passwordEncoder(passwordEncoder());
+                .passwordEncoder(passwordEncoder);
 
         return authenticationManagerBuilder.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Primary
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${security.password.bcrypt.strength:12}") int strength,
+            @Value("${security.password.bcrypt.target-latency-ms:250}") long targetLatencyMillis,
+            @Value("${security.password.hashing.threads:0}") int threads,
+            @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity) {
+        // Custo fixo, o mesmo em todos os nós; 0 (perfil dev) calibra contra a latência alvo desta máquina
+        int effectiveStrength = strength > 0 ? strength : BoundedPasswordEncoder.calibrate(targetLatencyMillis);
+        int effectiveThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(effectiveStrength, effectiveThreads, queueCapacity);
+    }
+
+    /**
+     * Encoder da importação em massa, com o mesmo custo do principal mas fora do pool dele: a importação
+     * limita o próprio paralelismo (users.import.hashing.threads) e não ocupa a fila de login e cadastro.
+     */
+    @Bean
+    public PasswordEncoder importPasswordEncoder(BoundedPasswordEncoder passwordEncoder) {
+        return new BCryptPasswordEncoder(passwordEncoder.getStrength());
     }
-}
\ No newline at end of file
+}
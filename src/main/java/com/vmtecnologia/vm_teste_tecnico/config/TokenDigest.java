@@ -0,0 +1,77 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Identificador de tamanho fixo (128 bits do SHA-256) de um token, usado como chave
+ * em caches e índices sem reter a string original do JWT.
+ */
+public record TokenDigest(long high, long low) {
+
+    private static final MessageDigest SHA_256_PROTOTYPE = newSha256();
+    private static final int CHUNK_SIZE = 512;
+
+    public static TokenDigest of(CharSequence token) {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[Math.min(CHUNK_SIZE, token.length() + 3)];
+        int position = 0;
+
+        for (int i = 0; i < token.length(); i++) {
+            if (position > buffer.length - 3) {
+                digest.update(buffer, 0, position);
+                position = 0;
+            }
+            char c = token.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else {
+                // Tokens válidos são ASCII; demais caracteres recebem codificação injetiva própria
+                buffer[position++] = (byte) 0xFF;
+                buffer[position++] = (byte) (c >>> 8);
+                buffer[position++] = (byte) c;
+            }
+        }
+        digest.update(buffer, 0, position);
+
+        byte[] hash = digest.digest();
+        return new TokenDigest(readLong(hash, 0), readLong(hash, 8));
+    }
+
+    public String toHex() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    public static TokenDigest fromHex(String hex) {
+        if (hex == null || hex.length() != 32) {
+            throw new IllegalArgumentException("Digest inválido: " + hex);
+        }
+        return new TokenDigest(
+                Long.parseUnsignedLong(hex, 0, 16, 16),
+                Long.parseUnsignedLong(hex, 16, 32, 16));
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (bytes[i] & 0xFFL);
+        }
+        return value;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return (MessageDigest) SHA_256_PROTOTYPE.clone();
+        } catch (CloneNotSupportedException e) {
+            return newSha256();
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import com.vmtecnologia.vm_teste_tecnico.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * UserDetails que carrega o próprio usuário até o resultado da autenticação, evitando uma segunda
+ * consulta ao montar a resposta do login. Não implementa CredentialsContainer: a instância fica
+ * em cache e não pode ter o hash apagado pelo ProviderManager.
+ */
+public class UserPrincipal implements UserDetails {
+
+    private final User user;
+    private final List<GrantedAuthority> authorities;
+
+    public UserPrincipal(User user) {
+        this.user = user;
+        this.authorities = RoleAuthorities.of(user.getRole());
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return user.getPassword();
+    }
+
+    @Override
+    public String getUsername() {
+        return user.getUsername();
+    }
+}
@@ -0,0 +1,35 @@
+package com.vmtecnologia.vm_teste_tecnico.config.filters;
+
+import java.nio.CharBuffer;
+
+/**
+ * Extrai o token do header Authorization. Compartilhado pelo filtro de autenticação e pelo logout.
+ */
+public final class BearerTokens {
+
+    private static final String PREFIX = "Bearer ";
+
+    private BearerTokens() {
+    }
+
+    /**
+     * Retorna uma visão do token dentro do próprio header, sem copiar a string,
+     * ou {@code null} se o header não contiver um token Bearer.
+     */
+    public static CharSequence resolve(String authorizationHeader) {
+        if (authorizationHeader == null
+                || !authorizationHeader.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            return null;
+        }
+
+        int start = PREFIX.length();
+        int end = authorizationHeader.length();
+        while (start < end && authorizationHeader.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && authorizationHeader.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return start == end ? null : CharBuffer.wrap(authorizationHeader, start, end);
+    }
+}
@@ -1,53 +1,60 @@
 package com.vmtecnologia.vm_teste_tecnico.config.filters;
 
 import com.vmtecnologia.vm_teste_tecnico.config.JwtAuthenticationToken;
+import com.vmtecnologia.vm_teste_tecnico.config.TokenDigest;
 import com.vmtecnologia.vm_teste_tecnico.service.TokenBlacklistService;
+import com.vmtecnologia.vm_teste_tecnico.service.TokenEpochService;
+import com.vmtecnologia.vm_teste_tecnico.service.TokenVerificationService;
 import io.jsonwebtoken.*;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import javax.crypto.SecretKey;
 import java.io.IOException;
 
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final TokenBlacklistService tokenBlacklistService;
-    private final SecretKey secretKey;
+    private final TokenVerificationService tokenVerificationService;
+    private final TokenEpochService tokenEpochService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        String authHeader = request.getHeader("Authorization");
+        CharSequence token = BearerTokens.resolve(request.getHeader(HttpHeaders.AUTHORIZATION));
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (token == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String token = authHeader.substring(7);
+        TokenDigest digest = TokenDigest.of(token);
 
-        // Verifica se o token está na blacklist
-        if (tokenBlacklistService.isTokenBlacklisted(token)) {
+        // Verifica se o token está na blacklist (também nos acertos do cache)
+        if (tokenBlacklistService.isTokenBlacklisted(digest)) {
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token inválido");
             return;
         }
 
         try {
-            Jws<Claims> claimsJws = Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
+            Claims claims = tokenVerificationService.verify(digest, token);
+
+            // Tokens de épocas anteriores foram revogados em massa (troca de senha, exclusão, logout geral)
+            if (!tokenEpochService.isCurrent(claims)) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token revogado");
+                return;
+            }
 
             SecurityContextHolder.getContext().setAuthentication(
-                    new JwtAuthenticationToken(claimsJws.getPayload())
+                    new JwtAuthenticationToken(claims)
             );
 
         } catch (JwtException e) {
@@ -57,4 +64,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
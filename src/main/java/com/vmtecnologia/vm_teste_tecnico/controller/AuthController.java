@@ -1,25 +1,35 @@
 package com.vmtecnologia.vm_teste_tecnico.controller;
 
+import com.vmtecnologia.vm_teste_tecnico.config.JwtKeyRing;
+import com.vmtecnologia.vm_teste_tecnico.config.filters.BearerTokens;
 import com.vmtecnologia.vm_teste_tecnico.dto.JwtResponse;
 import com.vmtecnologia.vm_teste_tecnico.dto.LoginRequest;
+import com.vmtecnologia.vm_teste_tecnico.dto.RefreshTokenRequest;
 import com.vmtecnologia.vm_teste_tecnico.service.AuthService;
-import com.vmtecnologia.vm_teste_tecnico.service.TokenBlacklistService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import java.time.Duration;
+
 @Slf4j
 @Controller
 @RequestMapping("/vmtech/auth")
@@ -28,7 +38,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 public class AuthController {
 
     private final AuthService authService;
-    private final TokenBlacklistService tokenBlacklistService;
+    private final JwtKeyRing jwtKeyRing;
 
     @Operation(
             summary = "Autenticar usuário",
@@ -64,6 +74,10 @@ public class AuthController {
                                             value = "{\"timestamp\": \"2023-11-20T12:05:00\", \"status\": 401, \"error\": \"Unauthorized\", \"message\": \"Credenciais inválidas\"}"
                                     )
                             )
+                    ),
+                    @ApiResponse(
+                            responseCode = "429",
+                            description = "Muitas tentativas para o usuário ou IP; o header Retry-After indica a espera"
                     )
             }
     )
@@ -86,18 +100,41 @@ public class AuthController {
                             }
                     )
             )
-            @Valid @RequestBody LoginRequest loginRequest) {
+            @Valid @RequestBody LoginRequest loginRequest,
+            HttpServletRequest request) {
 
         log.info("Tentativa de login para usuário: {}", loginRequest.getUsername());
 
-        JwtResponse response = authService.authenticateUser(loginRequest);
+        JwtResponse response = authService.authenticateUser(loginRequest, request.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
 
 
+    @Operation(
+            summary = "Renovar tokens",
+            description = "Troca um refresh token válido por um novo access token e um novo refresh token. " +
+                    "Cada refresh token só pode ser usado uma vez; reutilizá-lo revoga a sessão inteira",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Tokens renovados",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = JwtResponse.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "401", description = "Refresh token inválido, expirado ou reutilizado")
+            }
+    )
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+
     @Operation(
             summary = "Deslogar usuário",
-            description = "Invalida o token JWT atual",
+            description = "Invalida o token JWT atual e, quando enviado no corpo, o refresh token da mesma sessão " +
+                    "(toda a família de rotação)",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -116,11 +153,44 @@ public class AuthController {
             }
     )
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String authHeader) {
-        String token = authHeader.substring(7); // Remove "Bearer "
-        tokenBlacklistService.blacklistToken(token);
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+                                       @RequestBody(required = false) RefreshTokenRequest request,
+                                       Authentication authentication) {
+        CharSequence token = BearerTokens.resolve(authHeader);
+        if (token == null) {
+            return ResponseEntity.badRequest().build();
+        }
 
-        log.info("Logout realizado para o token: {}", token);
+        authService.logout(token, authentication.getName(), request != null ? request.getRefreshToken() : null);
         return ResponseEntity.ok().build();
     }
+
+    @Operation(
+            summary = "Deslogar de todos os dispositivos",
+            description = "Invalida todos os tokens JWT já emitidos para o usuário autenticado",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Todos os tokens foram invalidados"),
+                    @ApiResponse(responseCode = "401", description = "Não autorizado")
+            }
+    )
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(Authentication authentication) {
+        authService.logoutAll(authentication.getName());
+
+        log.info("Logout geral realizado para o usuário: {}", authentication.getName());
+        return ResponseEntity.ok().build();
+    }
+
+    @Operation(
+            summary = "Chaves públicas de verificação",
+            description = "Publica o JWK Set com as chaves usadas para assinar os tokens (vazio no modo HS256)",
+            responses = @ApiResponse(responseCode = "200", description = "JWK Set")
+    )
+    @GetMapping("/jwks")
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(jwtKeyRing.getJwks());
+    }
 }
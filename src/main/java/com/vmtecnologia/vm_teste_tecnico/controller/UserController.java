@@ -1,9 +1,26 @@
 package com.vmtecnologia.vm_teste_tecnico.controller;
 
+import com.vmtecnologia.vm_teste_tecnico.dto.AvailabilityDTO;
 import com.vmtecnologia.vm_teste_tecnico.dto.CreateUserDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.PatchUserDTO;
 import com.vmtecnologia.vm_teste_tecnico.dto.UpdateUserDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBatchDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBatchGetRequest;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBulkProgress;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBulkRequest;
 import com.vmtecnologia.vm_teste_tecnico.dto.UserDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserFileFormat;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserImportJob;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserImportResult;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserSliceDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserSortField;
+import com.vmtecnologia.vm_teste_tecnico.exception.BusinessException;
+import com.vmtecnologia.vm_teste_tecnico.service.UserAvailabilityService;
+import com.vmtecnologia.vm_teste_tecnico.service.UserBulkService;
+import com.vmtecnologia.vm_teste_tecnico.service.UserExportService;
+import com.vmtecnologia.vm_teste_tecnico.service.UserImportJobService;
 import com.vmtecnologia.vm_teste_tecnico.service.UserService;
+import com.vmtecnologia.vm_teste_tecnico.util.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,17 +29,30 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
 
 
 @RestController
@@ -32,6 +62,10 @@ import org.springframework.web.server.ResponseStatusException;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportJobService userImportJobService;
+    private final UserExportService userExportService;
+    private final UserAvailabilityService userAvailabilityService;
+    private final UserBulkService userBulkService;
 
     @PostMapping("/createUser")
     @Operation(summary = "Criar novo usuário", description = "Registra um novo usuário no sistema")
@@ -47,6 +81,102 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(newUser);
     }
 
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Importar usuários em massa",
+            description = "Recebe NDJSON (um usuário por linha) ou CSV com cabeçalho name,username,email,password[,role] "
+                    + "e processa o arquivo em segundo plano; acompanhe a importação pelo endereço em Location")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Arquivo recebido; importação agendada",
+                    content = @Content(schema = @Schema(implementation = UserImportJob.class))),
+            @ApiResponse(responseCode = "403", description = "Apenas administradores podem importar usuários")
+    })
+    public ResponseEntity<UserImportJob> importUsers(
+            HttpServletRequest request,
+
+            @Parameter(description = "Envia o e-mail de boas-vindas em segundo plano para os usuários criados")
+            @RequestParam(defaultValue = "false") boolean sendWelcomeEmail) throws IOException {
+
+        UserFileFormat format = UserFileFormat.of(MediaType.parseMediaType(request.getContentType()));
+        UserImportJob job = userImportJobService.start(request.getInputStream(), format, sendWelcomeEmail);
+        return ResponseEntity.accepted()
+                .location(URI.create("/vmtech/users/import/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    @Operation(summary = "Consultar importação em massa",
+            description = "Situação e totais parciais de uma importação; disponível no nó que recebeu o arquivo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Situação da importação"),
+            @ApiResponse(responseCode = "404", description = "Importação inexistente ou já descartada")
+    })
+    public ResponseEntity<UserImportJob> findImport(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(findImportJob(jobId));
+    }
+
+    @GetMapping(value = "/import/{jobId}/results", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Resultado da importação em massa",
+            description = "Devolve, em NDJSON, o resultado de cada linha de uma importação terminada")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado de cada linha",
+                    content = @Content(schema = @Schema(implementation = UserImportResult.class))),
+            @ApiResponse(responseCode = "404", description = "Importação inexistente ou já descartada"),
+            @ApiResponse(responseCode = "409", description = "Importação ainda em andamento")
+    })
+    public ResponseEntity<StreamingResponseBody> importResults(@PathVariable UUID jobId) {
+        if (findImportJob(jobId).finishedAt() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Importação ainda em andamento: " + jobId);
+        }
+        Path results = userImportJobService.results(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Importação não encontrada: " + jobId));
+        StreamingResponseBody body = output -> Files.copy(results, output);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private UserImportJob findImportJob(UUID jobId) {
+        return userImportJobService.find(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Importação não encontrada: " + jobId));
+    }
+
+    @PostMapping(value = "/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Alterar perfil ou excluir usuários em massa",
+            description = "Aplica a operação aos usuários que atendem a todos os filtros, em blocos com transação própria, "
+                    + "e devolve o progresso em NDJSON (uma linha por bloco e uma final)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Operação processada; a última linha indica DONE ou FAILED",
+                    content = @Content(schema = @Schema(implementation = UserBulkProgress.class))),
+            @ApiResponse(responseCode = "400", description = "Pedido sem filtro ou com perfil inválido"),
+            @ApiResponse(responseCode = "403", description = "Apenas administradores podem executar operações em massa")
+    })
+    public ResponseEntity<StreamingResponseBody> bulkUpdate(
+            @Valid @RequestBody @Parameter(description = "Operação e filtros", required = true)
+            UserBulkRequest request) {
+
+        userBulkService.validate(request);
+        StreamingResponseBody body = output -> userBulkService.execute(request, output);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    @Operation(summary = "Exportar usuários",
+            description = "Transmite todos os usuários em NDJSON ou CSV, lidos por cursor no banco, sem paginação")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação transmitida"),
+            @ApiResponse(responseCode = "403", description = "Apenas administradores podem exportar usuários")
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Formato do arquivo: NDJSON ou CSV")
+            @RequestParam(defaultValue = "NDJSON") UserFileFormat format) {
+
+        StreamingResponseBody body = output -> userExportService.exportUsers(format, output);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users." + format.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Atualizar usuário", description = "Atualiza os dados de um usuário existente")
     @ApiResponses(value = {
@@ -54,17 +184,45 @@ public class UserController {
                     content = @Content(schema = @Schema(implementation = UserDTO.class))),
             @ApiResponse(responseCode = "400", description = "Dados inválidos fornecidos"),
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
-            @ApiResponse(responseCode = "409", description = "Novo e-mail já está em uso")
+            @ApiResponse(responseCode = "409", description = "Novo e-mail já está em uso ou alteração concorrente"),
+            @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual")
     })
     public ResponseEntity<UserDTO> updateUser(
             @Parameter(description = "ID do usuário a ser atualizado", required = true)
             @PathVariable Long id,
 
+            @Parameter(description = "ETag obtido no GET; a atualização só ocorre se o usuário não mudou desde então")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody @Parameter(description = "Dados atualizados do usuário", required = true)
             UpdateUserDTO updateUserDTO) {
 
-        UserDTO updatedUser = userService.updateUser(id, updateUserDTO);
-        return ResponseEntity.ok(updatedUser);
+        UserDTO updatedUser = userService.updateUser(id, updateUserDTO, ETags.parseVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedUser)).body(updatedUser);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Atualizar parcialmente", description = "Aplica um JSON Merge Patch: só os campos enviados são alterados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Usuário atualizado com sucesso",
+                    content = @Content(schema = @Schema(implementation = UserDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos ou campo obrigatório removido"),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Novo e-mail já está em uso ou alteração concorrente"),
+            @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual")
+    })
+    public ResponseEntity<UserDTO> patchUser(
+            @Parameter(description = "ID do usuário a ser atualizado", required = true)
+            @PathVariable Long id,
+
+            @Parameter(description = "ETag obtido no GET; a atualização só ocorre se o usuário não mudou desde então")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
+            @Valid @RequestBody @Parameter(description = "Campos a alterar", required = true)
+            PatchUserDTO patch) {
+
+        UserDTO updatedUser = userService.patchUser(id, patch, ETags.parseVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updatedUser)).body(updatedUser);
     }
 
 
@@ -72,6 +230,7 @@ public class UserController {
     @Operation(summary = "Listar usuários", description = "Retorna lista paginada de usuários com filtro opcional por nome")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de usuários retornada com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Página inalterada desde o ETag enviado em If-None-Match"),
             @ApiResponse(responseCode = "401", description = "Acesso não autorizado")
     })
     public ResponseEntity<Page<UserDTO>> findUsers(
@@ -79,10 +238,82 @@ public class UserController {
             @RequestParam(required = false) String nome,
 
             @Parameter(description = "Parâmetros de paginação (page, size, sort)")
-            @PageableDefault(sort = "nome", direction = Sort.Direction.ASC) Pageable pageable) {
+            @PageableDefault(sort = "name", direction = Sort.Direction.ASC) Pageable pageable) {
 
         Page<UserDTO> Users = userService.usersList(nome, pageable);
-        return ResponseEntity.ok(Users);
+        // Com If-None-Match igual ao ETag o Spring responde 304 sem serializar o corpo
+        return ResponseEntity.ok()
+                .eTag(ETags.of(Users.getContent(), Users.getTotalElements(), Users.getNumber(), Users.getSize(), Users.getSort()))
+                .body(Users);
+    }
+
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Listar usuários por cursor",
+            description = "Percorre os usuários em fatias sem contagem total; use nextCursor para buscar a próxima fatia")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fatia de usuários retornada com sucesso"),
+            @ApiResponse(responseCode = "304", description = "Fatia inalterada desde o ETag enviado em If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Ordenação ou cursor inválido"),
+            @ApiResponse(responseCode = "401", description = "Acesso não autorizado")
+    })
+    public ResponseEntity<UserSliceDTO> scrollUsers(
+            @Parameter(description = "Filtro por parte do nome")
+            @RequestParam(required = false) String nome,
+
+            @Parameter(description = "Campo de ordenação: name, createdAt ou id")
+            @RequestParam(defaultValue = "name") String sort,
+
+            @Parameter(description = "Direção da ordenação")
+            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+
+            @Parameter(description = "Cursor retornado na fatia anterior")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "Quantidade de registros por fatia (1 a 100)")
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+
+        UserSliceDTO slice = userService.usersScroll(nome, UserSortField.fromProperty(sort), direction, cursor, size);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(slice.getContent(), slice.getNextCursor()))
+                .body(slice);
+    }
+
+
+    @GetMapping("/availability")
+    @Operation(summary = "Verificar disponibilidade",
+            description = "Informa se o username e/ou e-mail estão livres e sugere alternativas para usernames ocupados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Disponibilidade verificada"),
+            @ApiResponse(responseCode = "400", description = "Nenhum username ou e-mail informado")
+    })
+    public ResponseEntity<AvailabilityDTO> checkAvailability(
+            @Parameter(description = "Username desejado")
+            @RequestParam(required = false) String username,
+
+            @Parameter(description = "E-mail desejado")
+            @RequestParam(required = false) String email) {
+
+        if (!StringUtils.hasText(username) && !StringUtils.hasText(email)) {
+            throw new BusinessException("Informe username e/ou email");
+        }
+        return ResponseEntity.ok(userAvailabilityService.check(username, email));
+    }
+
+
+    @PostMapping("/batch-get")
+    @Operation(summary = "Buscar vários usuários por ID",
+            description = "Resolve até " + UserBatchGetRequest.MAX_IDS + " IDs numa única requisição, na ordem pedida, informando os inexistentes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Usuários encontrados e IDs inexistentes"),
+            @ApiResponse(responseCode = "400", description = "Lista de IDs vazia ou acima do limite"),
+            @ApiResponse(responseCode = "401", description = "Acesso não autorizado")
+    })
+    public ResponseEntity<UserBatchDTO> findUsersByIds(
+            @Valid @RequestBody @Parameter(description = "IDs a buscar", required = true)
+            UserBatchGetRequest request) {
+
+        return ResponseEntity.ok(userService.findByIds(request.getIds()));
     }
 
 
@@ -90,6 +321,7 @@ public class UserController {
     @Operation(summary = "Buscar usuário por ID", description = "Retorna os detalhes de um usuário específico")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Usuário encontrado"),
+            @ApiResponse(responseCode = "304", description = "Usuário inalterado desde o ETag enviado em If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
             @ApiResponse(responseCode = "401", description = "Acesso não autorizado")
     })
@@ -98,7 +330,7 @@ public class UserController {
             @PathVariable Long id) {
 
         UserDTO User = userService.findById(id);
-        return ResponseEntity.ok(User);
+        return ResponseEntity.ok().eTag(ETags.of(User)).body(User);
     }
 
 
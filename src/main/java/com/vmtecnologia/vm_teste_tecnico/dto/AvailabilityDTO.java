@@ -0,0 +1,33 @@
+package com.vmtecnologia.vm_teste_tecnico.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Disponibilidade de username e e-mail para cadastro")
+public class AvailabilityDTO {
+
+    @Schema(description = "Username consultado", example = "vinicius.vmtech")
+    private String username;
+
+    @Schema(description = "Indica se o username está livre")
+    private Boolean usernameAvailable;
+
+    @Schema(description = "Alternativas livres quando o username já está em uso", example = "[\"vinicius.vmtech1\"]")
+    private List<String> suggestions;
+
+    @Schema(description = "E-mail consultado", example = "vinicius@vmtech.com")
+    private String email;
+
+    @Schema(description = "Indica se o e-mail está livre")
+    private Boolean emailAvailable;
+
+}
@@ -23,4 +23,8 @@ public class JwtResponse {
 
     private String username;
 
+    private String refreshToken;
+
+    private Long refreshExpiresIn;
+
 }
@@ -0,0 +1,58 @@
+package com.vmtecnologia.vm_teste_tecnico.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Corpo do PATCH (JSON Merge Patch): só os campos enviados são aplicados. Os setters registram
+ * quais campos vieram no documento, distinguindo "ausente" de "enviado como null".
+ */
+@Getter
+@NoArgsConstructor
+public class PatchUserDTO {
+
+    @Size(max = 100)
+    private String name;
+
+    @Email
+    @Size(max = 100)
+    private String email;
+
+    @Size(min = 6)
+    private String password;
+
+    private String role;
+
+    @JsonIgnore
+    private final Set<String> presentFields = new HashSet<>();
+
+    public void setName(String name) {
+        this.name = name;
+        presentFields.add("name");
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+        presentFields.add("email");
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+        presentFields.add("password");
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+        presentFields.add("role");
+    }
+
+    public boolean has(String field) {
+        return presentFields.contains(field);
+    }
+}
@@ -0,0 +1,15 @@
+package com.vmtecnologia.vm_teste_tecnico.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "Refresh token é obrigatório")
+    private String refreshToken;
+}
@@ -0,0 +1,22 @@
+package com.vmtecnologia.vm_teste_tecnico.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Resultado da busca de vários usuários por ID")
+public class UserBatchDTO {
+
+    @Schema(description = "Usuários encontrados, na ordem dos IDs pedidos (sem repetições)")
+    private List<UserDTO> users;
+
+    @Schema(description = "IDs pedidos que não existem")
+    private List<Long> missingIds;
+
+}
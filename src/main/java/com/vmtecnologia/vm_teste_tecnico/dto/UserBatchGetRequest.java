@@ -0,0 +1,25 @@
+package com.vmtecnologia.vm_teste_tecnico.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBatchGetRequest {
+
+    public static final int MAX_IDS = 100;
+
+    @NotEmpty
+    @Size(max = MAX_IDS)
+    @Schema(description = "IDs a buscar; a resposta segue esta ordem", example = "[3, 1, 2]")
+    private List<@NotNull Long> ids;
+
+}
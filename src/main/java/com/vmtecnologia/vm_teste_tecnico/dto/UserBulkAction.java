@@ -0,0 +1,6 @@
+package com.vmtecnologia.vm_teste_tecnico.dto;
+
+public enum UserBulkAction {
+    CHANGE_ROLE,
+    DELETE
+}
@@ -0,0 +1,29 @@
+package com.vmtecnologia.vm_teste_tecnico.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Progresso de uma operação em massa, devolvido como uma linha NDJSON por bloco gravado.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Progresso da operação em massa")
+public record UserBulkProgress(
+        @Schema(description = "Situação", allowableValues = {"RUNNING", "DONE", "FAILED"}) String status,
+        @Schema(description = "Blocos concluídos", example = "3") int chunks,
+        @Schema(description = "Usuários alterados no último bloco", example = "1000") Integer affected,
+        @Schema(description = "Total de usuários alterados até agora", example = "3000") long totalAffected,
+        @Schema(description = "Motivo da falha") String error) {
+
+    public static UserBulkProgress running(int chunks, int affected, long totalAffected) {
+        return new UserBulkProgress("RUNNING", chunks, affected, totalAffected, null);
+    }
+
+    public static UserBulkProgress done(int chunks, long totalAffected) {
+        return new UserBulkProgress("DONE", chunks, null, totalAffected, null);
+    }
+
+    public static UserBulkProgress failed(int chunks, long totalAffected, String error) {
+        return new UserBulkProgress("FAILED", chunks, null, totalAffected, error);
+    }
+}
@@ -0,0 +1,44 @@
+package com.vmtecnologia.vm_teste_tecnico.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Operação em massa sobre os usuários que atendem a todos os filtros informados.
+ * Pelo menos um filtro é obrigatório, para que um corpo incompleto não atinja a base inteira.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Alteração de perfil ou exclusão em massa")
+public class UserBulkRequest {
+
+    @NotNull
+    @Schema(description = "Operação a executar")
+    private UserBulkAction action;
+
+    @Schema(description = "Filtro: IDs dos usuários")
+    private List<Long> ids;
+
+    @Schema(description = "Filtro: perfil atual", allowableValues = {"USER", "ADMIN"})
+    private String role;
+
+    @Schema(description = "Filtro: trecho do nome")
+    private String nameContains;
+
+    @Schema(description = "Filtro: criados antes desta data", example = "2024-01-01T00:00:00")
+    private LocalDateTime createdBefore;
+
+    @Schema(description = "Novo perfil (apenas em CHANGE_ROLE)", allowableValues = {"USER", "ADMIN"})
+    private String newRole;
+
+    @Schema(description = "Envia e-mail aos usuários afetados, em segundo plano após cada bloco")
+    private boolean notifyUsers;
+
+}
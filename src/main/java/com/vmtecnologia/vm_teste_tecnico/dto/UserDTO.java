@@ -1,5 +1,6 @@
 package com.vmtecnologia.vm_teste_tecnico.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 
@@ -30,4 +31,9 @@ public class UserDTO {
     @Schema(description = "Perfil de acesso do usuário", allowableValues = {"USER", "ADMIN"})
     private String role;
 
+    // Vai no cabeçalho ETag, não no corpo
+    @JsonIgnore
+    @Schema(hidden = true)
+    private long version;
+
 }
\ No newline at end of file
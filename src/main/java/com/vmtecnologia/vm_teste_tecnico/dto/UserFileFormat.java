@@ -0,0 +1,22 @@
+package com.vmtecnologia.vm_teste_tecnico.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos de arquivo aceitos na importação e gerados na exportação de usuários.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum UserFileFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    public static UserFileFormat of(MediaType contentType) {
+        return contentType.isCompatibleWith(NDJSON.mediaType) ? NDJSON : CSV;
+    }
+}
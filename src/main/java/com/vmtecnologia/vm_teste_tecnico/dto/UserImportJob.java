@@ -0,0 +1,22 @@
+package com.vmtecnologia.vm_teste_tecnico.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Situação de uma importação em massa executada em segundo plano.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Situação da importação em massa")
+public record UserImportJob(
+        @Schema(description = "Identificador da importação") UUID id,
+        @Schema(description = "Situação", allowableValues = {"RUNNING", "DONE", "FAILED"}) String status,
+        @Schema(description = "Usuários criados até agora", example = "1000") int created,
+        @Schema(description = "Linhas com falha até agora", example = "3") int failed,
+        @Schema(description = "Início da importação") LocalDateTime startedAt,
+        @Schema(description = "Fim da importação") LocalDateTime finishedAt,
+        @Schema(description = "Motivo da falha") String error) {
+}
@@ -0,0 +1,25 @@
+package com.vmtecnologia.vm_teste_tecnico.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Resultado de uma linha da importação em massa, devolvido como uma linha NDJSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Resultado da importação de uma linha")
+public record UserImportResult(
+        @Schema(description = "Número da linha no arquivo enviado", example = "2") long line,
+        @Schema(description = "Username informado na linha", example = "vinicius.vmtech") String username,
+        @Schema(description = "Situação da linha", allowableValues = {"CREATED", "FAILED"}) String status,
+        @Schema(description = "ID do usuário criado", example = "51") Long id,
+        @Schema(description = "Motivo da falha") String error) {
+
+    public static UserImportResult created(long line, String username, Long id) {
+        return new UserImportResult(line, username, "CREATED", id, null);
+    }
+
+    public static UserImportResult failed(long line, String username, String error) {
+        return new UserImportResult(line, username, "FAILED", null, error);
+    }
+}
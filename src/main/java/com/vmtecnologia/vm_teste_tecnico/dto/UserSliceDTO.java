@@ -0,0 +1,25 @@
+package com.vmtecnologia.vm_teste_tecnico.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Fatia da listagem por cursor, sem contagem total")
+public class UserSliceDTO {
+
+    @Schema(description = "Usuários da fatia atual")
+    private List<UserDTO> content;
+
+    @Schema(description = "Token opaco para buscar a próxima fatia; nulo na última")
+    private String nextCursor;
+
+    @Schema(description = "Indica se existem mais registros após esta fatia")
+    private boolean hasNext;
+
+}
@@ -0,0 +1,34 @@
+package com.vmtecnologia.vm_teste_tecnico.dto;
+
+import com.vmtecnologia.vm_teste_tecnico.exception.BusinessException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Campos aceitos na listagem por cursor. Cada um é coberto por um índice composto (campo, id),
+ * então a busca da próxima página é um seek no índice, não um OFFSET.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum UserSortField {
+
+    NAME("name", UserDTO::getName, value -> value),
+    CREATED_AT("createdAt", UserDTO::getCreatedAt, LocalDateTime::parse),
+    ID("id", UserDTO::getId, Long::valueOf);
+
+    private final String property;
+    private final Function<UserDTO, Object> extractor;
+    private final Function<String, Object> parser;
+
+    public static UserSortField fromProperty(String property) {
+        for (UserSortField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new BusinessException("Ordenação não suportada: " + property + ". Use name, createdAt ou id");
+    }
+}
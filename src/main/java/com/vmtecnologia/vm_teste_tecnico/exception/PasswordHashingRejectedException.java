@@ -0,0 +1,11 @@
+package com.vmtecnologia.vm_teste_tecnico.exception;
+
+/**
+ * Lançada quando a fila de hashing de senhas está cheia; o cliente deve tentar novamente mais tarde
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
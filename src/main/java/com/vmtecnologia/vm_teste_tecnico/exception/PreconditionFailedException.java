@@ -0,0 +1,11 @@
+package com.vmtecnologia.vm_teste_tecnico.exception;
+
+/**
+ * O If-Match enviado pelo cliente não corresponde mais à versão atual do recurso
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.vmtecnologia.vm_teste_tecnico.exception;
+
+/**
+ * Tentativas acima do limite; o cliente deve aguardar {@code retryAfterSeconds} antes de tentar novamente
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
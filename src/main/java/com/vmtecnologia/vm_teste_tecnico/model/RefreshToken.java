@@ -0,0 +1,49 @@
+package com.vmtecnologia.vm_teste_tecnico.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RefreshToken {
+
+    // Hex dos 128 bits do SHA-256 do token; o valor entregue ao cliente nunca é persistido
+    @Id
+    @Column(name = "token_hash", length = 32)
+    private String tokenHash;
+
+    @Column(nullable = false, length = 255)
+    private String username;
+
+    // Todos os tokens gerados por rotação a partir do mesmo login compartilham a família
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    // Época do usuário na emissão; troca de senha ou logout geral invalidam a família inteira
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion;
+
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+
+    @Column(nullable = false)
+    private boolean used;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,34 @@
+package com.vmtecnologia.vm_teste_tecnico.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SourceType;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RevokedToken {
+
+    // Hex dos 128 bits do SHA-256 do token; o JWT em si nunca é persistido
+    @Id
+    @Column(name = "token_hash", length = 32)
+    private String tokenHash;
+
+    @Column(name = "expires_at", nullable = false)
+    private Long expiresAt;
+
+    // Relógio do banco, comum a todos os nós, usado como cursor do polling
+    @CreationTimestamp(source = SourceType.DB)
+    @Column(name = "revoked_at", nullable = false, updatable = false)
+    private Instant revokedAt;
+}
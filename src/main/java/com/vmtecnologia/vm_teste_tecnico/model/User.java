@@ -5,22 +5,29 @@ import io.micrometer.common.util.internal.logging.InternalLogger;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SourceType;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@DynamicUpdate // UPDATE só com as colunas alteradas (PATCH de um campo não regrava a linha inteira)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Schema(description = "Entidade que representa um usuário do sistema")
 public class User {
 
+    // Sequência com blocos de 50 ids: diferente de IDENTITY, permite INSERTs em lote (importação em massa)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Schema(description = "ID único do usuário", example = "1")
     private Long id;
 
@@ -45,11 +52,36 @@ public class User {
     @Schema(description = "Data e hora de criação do registro", example = "2024-03-15T10:30:00")
     private LocalDateTime createdAt;
 
+    // Relógio do banco, não o da JVM de cada nó: serve de cursor para a sincronização entre nós
+    @UpdateTimestamp(source = SourceType.DB)
+    @Column(name = "data_atualizacao")
+    @Schema(hidden = true)
+    private LocalDateTime updatedAt;
+
     @Column(length = 255)
     @Schema(description = "Perfil de acesso do usuário",
             allowableValues = {"USER", "ADMIN"})
     private String role;
 
+    @ColumnDefault("0")
+    @Column(name = "token_version", nullable = false)
+    @Schema(hidden = true)
+    private long tokenVersion;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @Schema(hidden = true)
+    private long version;
+
+    // Época inicial única: tokens de uma conta excluída não valem para outra recriada com o mesmo username
+    @PrePersist
+    void initTokenVersion() {
+        if (tokenVersion == 0) {
+            tokenVersion = System.currentTimeMillis();
+        }
+    }
+
     public void updateFromDTO(UpdateUserDTO dto, PasswordEncoder passwordEncoder) {
         this.name = dto.getName();
         this.email = dto.getEmail();
@@ -0,0 +1,24 @@
+package com.vmtecnologia.vm_teste_tecnico.repository;
+
+import com.vmtecnologia.vm_teste_tecnico.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // Marca o token como usado apenas se ainda estiver válido; 0 linhas indica reuso ou corrida
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RefreshToken r SET r.used = true " +
+            "WHERE r.tokenHash = :tokenHash AND r.used = false AND r.revoked = false AND r.expiresAt > :now")
+    int markUsed(@Param("tokenHash") String tokenHash, @Param("now") Long now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Long now);
+}
@@ -0,0 +1,21 @@
+package com.vmtecnologia.vm_teste_tecnico.repository;
+
+import com.vmtecnologia.vm_teste_tecnico.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    List<RevokedToken> findTop1000ByTokenHashGreaterThanAndExpiresAtGreaterThanOrderByTokenHashAsc(String tokenHash, Long now);
+
+    List<RevokedToken> findByRevokedAtGreaterThanEqualAndExpiresAtGreaterThan(Instant since, Long now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Long now);
+}
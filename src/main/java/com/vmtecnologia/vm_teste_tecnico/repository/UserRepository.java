@@ -1,23 +1,139 @@
 package com.vmtecnologia.vm_teste_tecnico.repository;
 
+import com.vmtecnologia.vm_teste_tecnico.dto.UserDTO;
 import com.vmtecnologia.vm_teste_tecnico.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    // Projeção das consultas de leitura: só as colunas do UserDTO, sem o hash da senha
+    String SELECT_DTO = "SELECT new com.vmtecnologia.vm_teste_tecnico.dto.UserDTO("
+            + "u.id, u.name, u.username, u.email, u.createdAt, u.role, u.version) FROM User u";
+
+    String NAME_LIKE = " WHERE LOWER(u.name) LIKE LOWER(:pattern) ESCAPE '\\'";
 
     Optional<User> findByUsername(String username);
 
-    @Query("SELECT u FROM User u WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    Page<User> findByNameContainingIgnoreCase(@Param("fullName") String fullName, Pageable pageable);
+    @Query(SELECT_DTO + " WHERE u.id = :id")
+    Optional<UserDTO> findDTOById(@Param("id") Long id);
+
+    @Query(SELECT_DTO + " WHERE u.id IN :ids")
+    List<UserDTO> findAllDTOByIdIn(@Param("ids") Collection<? extends Long> ids);
+
+    @Query(value = SELECT_DTO, countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserDTO> findAllDTO(Pageable pageable);
+
+    /**
+     * Todos os usuários por cursor no servidor, em ordem de id, para exportação. O fetch size faz o
+     * driver trazer as linhas em blocos; precisa rodar dentro de uma transação (no PostgreSQL o cursor
+     * só existe com autocommit desligado) e o {@link Stream} deve ser fechado ao final.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_DTO + " ORDER BY u.id")
+    Stream<UserDTO> streamAllDTO();
+
+    /**
+     * Username e e-mail de cada usuário, para montar os índices de disponibilidade em memória,
+     * com o horário (do banco) da última gravação.
+     */
+    interface Identity {
+        String getUsername();
+
+        String getEmail();
+
+        LocalDateTime getUpdatedAt();
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.username AS username, u.email AS email, u.updatedAt AS updatedAt FROM User u")
+    Stream<Identity> streamIdentities();
+
+    // Inclui alterações de username/e-mail, não só cadastros; usa o índice idx_users_data_atualizacao
+    @Query("SELECT u.username AS username, u.email AS email, u.updatedAt AS updatedAt FROM User u "
+            + "WHERE u.updatedAt >= :since")
+    List<Identity> findIdentitiesUpdatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Id e username de um usuário criado ou alterado, para limpar os caches locais de cada nó.
+     */
+    interface Change {
+        Long getId();
+
+        String getUsername();
+
+        LocalDateTime getUpdatedAt();
+    }
+
+    @Query("SELECT u.id AS id, u.username AS username, u.updatedAt AS updatedAt FROM User u "
+            + "WHERE u.updatedAt >= :since")
+    List<Change> findChangesSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT MAX(u.updatedAt) FROM User u")
+    Optional<LocalDateTime> findLatestUpdate();
+
+    /**
+     * Busca por trecho do nome sem diferenciar maiúsculas. No PostgreSQL a expressão
+     * {@code LOWER(name) LIKE} usa o índice de trigramas idx_users_name_trgm.
+     */
+    default Page<UserDTO> findByNameContainingIgnoreCase(String name, Pageable pageable) {
+        return findByNameLike("%" + escapeLike(name) + "%", pageable);
+    }
+
+    @Query(value = SELECT_DTO + NAME_LIKE, countQuery = "SELECT COUNT(u) FROM User u" + NAME_LIKE)
+    Page<UserDTO> findByNameLike(@Param("pattern") String pattern, Pageable pageable);
+
+    static Specification<User> nameContains(String name) {
+        return (root, query, cb) -> StringUtils.hasText(name)
+                ? cb.like(cb.lower(root.get("name")), "%" + escapeLike(name.toLowerCase()) + "%", '\\')
+                : cb.conjunction();
+    }
+
+    // Curingas digitados pelo usuário são tratados como texto
+    static String escapeLike(String term) {
+        return term.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
 
     boolean existsByEmail(String email);
 
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
     boolean existsByUsername(String username);
 
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.username = :username")
+    Optional<Long> findTokenVersionByUsername(@Param("username") String username);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.username = :username")
+    int incrementTokenVersion(@Param("username") String username);
+
 }
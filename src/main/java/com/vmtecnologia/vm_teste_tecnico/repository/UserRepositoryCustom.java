@@ -0,0 +1,44 @@
+package com.vmtecnologia.vm_teste_tecnico.repository;
+
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBulkRequest;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserDTO;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Listagem por keyset: a posição é a chave (campos ordenados) do último registro lido,
+     * então o custo de cada fatia não cresce com a profundidade e não há {@code count(*)}.
+     * Seleciona apenas as colunas do {@link UserDTO}.
+     */
+    Window<UserDTO> scrollByName(String name, Sort sort, int limit, KeysetScrollPosition position);
+
+    /**
+     * Dados mínimos de um usuário atingido por uma operação em massa (eviction de caches e e-mail).
+     */
+    record BulkTarget(Long id, String name, String username, String email, String role) {
+    }
+
+    /**
+     * Próximo bloco de usuários que atendem aos filtros de {@code request}, em ordem de id e
+     * a partir de {@code afterId} (keyset), para que cada bloco custe o mesmo até o fim da tabela.
+     * As linhas ficam travadas ({@code FOR UPDATE}) até o fim da transação do bloco.
+     */
+    List<BulkTarget> findBulkTargets(UserBulkRequest request, long afterId, int limit);
+
+    /**
+     * Troca de perfil em massa dos {@code ids} que ainda atendem aos filtros de {@code request}; a época
+     * de tokens é incrementada porque os perfis viajam no token. Quem já tem o perfil pedido não é alterado.
+     */
+    int updateBulkRole(UserBulkRequest request, Collection<Long> ids);
+
+    /**
+     * Exclusão em massa dos {@code ids} que ainda atendem aos filtros de {@code request}.
+     */
+    int deleteBulkTargets(UserBulkRequest request, Collection<Long> ids);
+}
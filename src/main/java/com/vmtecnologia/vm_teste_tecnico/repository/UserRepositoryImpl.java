@@ -0,0 +1,178 @@
+package com.vmtecnologia.vm_teste_tecnico.repository;
+
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBulkRequest;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserDTO;
+import com.vmtecnologia.vm_teste_tecnico.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Window<UserDTO> scrollByName(String name, Sort sort, int limit, KeysetScrollPosition position) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserDTO> query = cb.createQuery(UserDTO.class);
+        Root<User> root = query.from(User.class);
+
+        query.select(cb.construct(UserDTO.class, root.get("id"), root.get("name"), root.get("username"),
+                root.get("email"), root.get("createdAt"), root.get("role"), root.get("version")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(UserRepository.nameContains(name).toPredicate(root, query, cb));
+        if (!position.isInitial()) {
+            predicates.add(seek(cb, root, sort, position.getKeys()));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Expression<?> path = root.get(order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        query.orderBy(orders);
+
+        // Um registro a mais indica se existe próxima fatia, sem precisar de count
+        List<UserDTO> rows = entityManager.createQuery(query)
+                .setMaxResults(limit + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > limit;
+        List<UserDTO> content = hasNext ? rows.subList(0, limit) : rows;
+
+        return Window.from(content, index -> ScrollPosition.forward(keysOf(content.get(index), sort)), hasNext);
+    }
+
+    @Override
+    public List<BulkTarget> findBulkTargets(UserBulkRequest request, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BulkTarget> query = cb.createQuery(BulkTarget.class);
+        Root<User> root = query.from(User.class);
+
+        query.select(cb.construct(BulkTarget.class, root.get("id"), root.get("name"), root.get("username"),
+                root.get("email"), root.get("role")));
+
+        List<Predicate> predicates = bulkFilters(cb, root, request);
+        predicates.add(cb.greaterThan(root.get("id"), afterId));
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public int updateBulkRole(UserBulkRequest request, Collection<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<User> update = cb.createCriteriaUpdate(User.class);
+        Root<User> root = update.from(User.class);
+
+        update.set(root.<String>get("role"), request.getNewRole());
+        update.set(root.<Long>get("tokenVersion"), cb.sum(root.get("tokenVersion"), 1L));
+        update.set(root.<Long>get("version"), cb.sum(root.get("version"), 1L));
+        // O UPDATE em massa não passa pelo @UpdateTimestamp; os outros nós enxergam a troca por esta coluna
+        update.set(root.<LocalDateTime>get("updatedAt"), cb.localDateTime());
+
+        List<Predicate> predicates = bulkFilters(cb, root, request);
+        predicates.add(root.get("id").in(ids));
+        predicates.add(cb.or(cb.isNull(root.get("role")), cb.notEqual(root.get("role"), request.getNewRole())));
+        update.where(predicates.toArray(Predicate[]::new));
+
+        int affected = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return affected;
+    }
+
+    @Override
+    public int deleteBulkTargets(UserBulkRequest request, Collection<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<User> delete = cb.createCriteriaDelete(User.class);
+        Root<User> root = delete.from(User.class);
+
+        List<Predicate> predicates = bulkFilters(cb, root, request);
+        predicates.add(root.get("id").in(ids));
+        delete.where(predicates.toArray(Predicate[]::new));
+
+        int affected = entityManager.createQuery(delete).executeUpdate();
+        entityManager.clear();
+        return affected;
+    }
+
+    // Filtros do pedido, os mesmos na seleção do bloco e no UPDATE/DELETE
+    private static List<Predicate> bulkFilters(CriteriaBuilder cb, Root<User> root, UserBulkRequest request) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            predicates.add(root.get("id").in(request.getIds()));
+        }
+        if (StringUtils.hasText(request.getRole())) {
+            predicates.add(cb.equal(root.get("role"), request.getRole()));
+        }
+        if (StringUtils.hasText(request.getNameContains())) {
+            predicates.add(UserRepository.nameContains(request.getNameContains()).toPredicate(root, null, cb));
+        }
+        if (request.getCreatedBefore() != null) {
+            predicates.add(cb.lessThan(root.get("createdAt"), request.getCreatedBefore()));
+        }
+        return predicates;
+    }
+
+    // (a > :a) OR (a = :a AND b > :b) ..., com o operador invertido nos campos em ordem decrescente.
+    // O OR sozinho não vira condição de índice no PostgreSQL (seria filtro sobre um scan desde o início);
+    // o limite redundante a >= :a no primeiro campo faz do seek um range scan em idx_users_name_id ou
+    // idx_users_created_at_id (ou na PK, ordenando por id) a partir da chave, e o OR só filtra os empates.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate seek(CriteriaBuilder cb, Root<User> root, Sort sort, Map<String, ?> keys) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalPrefix = new ArrayList<>();
+        Predicate leadingBound = null;
+        for (Sort.Order order : sort) {
+            Expression<Comparable> path = root.get(order.getProperty());
+            Comparable key = (Comparable) keys.get(order.getProperty());
+            if (leadingBound == null) {
+                leadingBound = order.isAscending() ? cb.greaterThanOrEqualTo(path, key) : cb.lessThanOrEqualTo(path, key);
+            }
+
+            List<Predicate> alternative = new ArrayList<>(equalPrefix);
+            alternative.add(order.isAscending() ? cb.greaterThan(path, key) : cb.lessThan(path, key));
+            alternatives.add(cb.and(alternative.toArray(Predicate[]::new)));
+
+            equalPrefix.add(cb.equal(path, key));
+        }
+        return cb.and(leadingBound, cb.or(alternatives.toArray(Predicate[]::new)));
+    }
+
+    private static Map<String, Object> keysOf(UserDTO dto, Sort sort) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(dto);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            keys.put(order.getProperty(), wrapper.getPropertyValue(order.getProperty()));
+        }
+        return keys;
+    }
+}
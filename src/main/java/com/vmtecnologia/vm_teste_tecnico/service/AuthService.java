@@ -1,10 +1,13 @@
 package com.vmtecnologia.vm_teste_tecnico.service;
 
 import com.vmtecnologia.vm_teste_tecnico.config.JwtConfig;
+import com.vmtecnologia.vm_teste_tecnico.config.JwtKeyRing;
+import com.vmtecnologia.vm_teste_tecnico.config.RoleAuthorities;
+import com.vmtecnologia.vm_teste_tecnico.config.TokenDigest;
+import com.vmtecnologia.vm_teste_tecnico.config.UserPrincipal;
 import com.vmtecnologia.vm_teste_tecnico.dto.JwtResponse;
 import com.vmtecnologia.vm_teste_tecnico.dto.LoginRequest;
 import com.vmtecnologia.vm_teste_tecnico.model.User;
-import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
 import io.jsonwebtoken.Jwts;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,7 +16,6 @@ import org.springframework.security.authentication.AuthenticationServiceExceptio
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
@@ -26,28 +28,30 @@ public class AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtConfig jwtConfig;
-    private final UserRepository userRepository;
+    private final JwtKeyRing jwtKeyRing;
     private final TokenBlacklistService  tokenBlacklistService;
+    private final TokenEpochService tokenEpochService;
+    private final RefreshTokenService refreshTokenService;
+    private final CustomUserDetailsService userDetailsService;
+    private final LoginThrottleService loginThrottleService;
 
-    public JwtResponse authenticateUser(LoginRequest loginRequest) {
+    public JwtResponse authenticateUser(LoginRequest loginRequest, String clientIp) {
         String username = loginRequest.getUsername();
 
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            username,
-                            loginRequest.getPassword()
-                    )
-            );
-
-            User user = userRepository.findByUsername(authentication.getName())
-                    .orElseThrow(() -> {
-                        log.error("Usuário autenticado não encontrado: {}", username);
-                        return new UsernameNotFoundException("Usuário não encontrado");
-                    });
+            Authentication authentication = loginThrottleService.attempt(username, clientIp, BadCredentialsException.class,
+                    () -> authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(
+                                    username,
+                                    loginRequest.getPassword()
+                            )
+                    ));
+
+            // O usuário carregado na autenticação segue no principal, sem nova consulta ao banco
+            User user = ((UserPrincipal) authentication.getPrincipal()).getUser();
 
             log.info("Login bem-sucedido para usuário: {}", username);
-            return buildJwtResponse(user);
+            return buildJwtResponse(user, refreshTokenService.issue(user.getUsername(), user.getTokenVersion()));
 
         } catch (BadCredentialsException e) {
             log.warn("Credenciais inválidas para usuário: {}", username);
@@ -55,14 +59,35 @@ public class AuthService {
         }
     }
 
-    public void logout(String token) {
+    /**
+     * Troca um refresh token válido por um novo par de tokens, sem verificar senha.
+     */
+    public JwtResponse refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = ((UserPrincipal) userDetailsService.loadUserByUsername(rotation.username())).getUser();
+
+        log.debug("Tokens renovados para usuário: {}", rotation.username());
+        return buildJwtResponse(user, rotation.refreshToken());
+    }
 
+    /**
+     * @param refreshToken refresh token da sessão, opcional; sem ele o refresh continuaria emitindo
+     *                     access tokens até expirar
+     */
+    public void logout(CharSequence token, String username, String refreshToken) {
         tokenBlacklistService.blacklistToken(token);
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken, username);
+        }
+
+        log.info("Token invalidado para logout: {}", TokenDigest.of(token).toHex());
+    }
 
-        log.info("Token invalidado para logout: {}", token);
+    public void logoutAll(String username) {
+        tokenEpochService.revokeAll(username);
     }
 
-    private JwtResponse buildJwtResponse(User user) {
+    private JwtResponse buildJwtResponse(User user, String refreshToken) {
         String token = generateToken(user);
         Instant expiration = Instant.now().plusMillis(jwtConfig.getExpirationTime());
 
@@ -72,6 +97,8 @@ public class AuthService {
                 .expiresIn(jwtConfig.getExpirationTime() / 1000) // em segundos
                 .expiresAt(expiration)
                 .username(user.getUsername())
+                .refreshToken(refreshToken)
+                .refreshExpiresIn(jwtConfig.getRefreshExpirationTime() / 1000)
                 .build();
     }
 
@@ -79,11 +106,14 @@ public class AuthService {
         Instant now = Instant.now();
         Instant expiration = now.plusMillis(jwtConfig.getExpirationTime());
 
-        return Jwts.builder()
-                .setSubject(user.getUsername())
-                .setIssuedAt(Date.from(now))
-                .setExpiration(Date.from(expiration))
-                .signWith(jwtConfig.getSecretKey())
+        // Assina com a chave ativa do key ring; o "kid" vai no header para verificação O(1)
+        return jwtKeyRing.getActiveSigningKey()
+                .signWith(Jwts.builder()
+                        .subject(user.getUsername())
+                        .claim(TokenEpochService.CLAIM, user.getTokenVersion())
+                        .claim(RoleAuthorities.CLAIM, RoleAuthorities.claimFor(user.getRole()))
+                        .issuedAt(Date.from(now))
+                        .expiration(Date.from(expiration)))
                 .compact();
     }
 }
\ No newline at end of file
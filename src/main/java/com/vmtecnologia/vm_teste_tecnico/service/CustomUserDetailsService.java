@@ -1,31 +1,95 @@
 package com.vmtecnologia.vm_teste_tecnico.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vmtecnologia.vm_teste_tecnico.config.ReadReplicaRoutingDataSource;
+import com.vmtecnologia.vm_teste_tecnico.config.UserPrincipal;
 import com.vmtecnologia.vm_teste_tecnico.model.User;
 import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import com.vmtecnologia.vm_teste_tecnico.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final TokenEpochService tokenEpochService;
+
+    private final Cache<String, UserPrincipal> users;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    // Usernames inexistentes; o DaoAuthenticationProvider continua fazendo o hash fictício de tempo constante
+    private final Cache<String, Boolean> unknownUsernames;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    TokenEpochService tokenEpochService,
+                                    @Value("${security.user-cache.ttl:300000}") long ttlMillis,
+                                    @Value("${security.user-cache.negative-ttl:30000}") long negativeTtlMillis,
+                                    @Value("${security.user-cache.maximum-size:10000}") long maximumSize) {
         this.userRepository = userRepository;
+        this.tokenEpochService = tokenEpochService;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+        this.unknownUsernames = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(negativeTtlMillis))
+                .build();
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
+        if (unknownUsernames.getIfPresent(username) != null) {
+            throw new UsernameNotFoundException("Usuário não encontrado: " + username);
+        }
 
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .roles(user.getRole()) // ou authorities
-                .build();
+        // Troca de senha, de perfil ou exclusão em qualquer nó mudam a época e invalidam a entrada
+        UserPrincipal cached = users.getIfPresent(username);
+        if (cached != null && cached.getUser().getTokenVersion() == tokenEpochService.currentEpoch(username)) {
+            return cached;
+        }
+
+        // Credenciais vêm do primário: pela réplica, a senha antiga ainda valeria logo após a troca
+        User user = ReadReplicaRoutingDataSource.onPrimary(() -> userRepository.findByUsername(username).orElse(null));
+        if (user == null) {
+            users.invalidate(username);
+            unknownUsernames.put(username, Boolean.TRUE);
+            throw new UsernameNotFoundException("Usuário não encontrado: " + username);
+        }
+
+        UserPrincipal principal = new UserPrincipal(user);
+        users.put(username, principal);
+        return principal;
     }
-}
 
+    /**
+     * Chamado pelo DaoAuthenticationProvider após um login bem-sucedido quando o hash armazenado
+     * usa um custo diferente do atual. Não altera a época dos tokens.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        AfterCommit.run(() -> evict(user.getUsername()));
+        // O retorno vira o principal da autenticação, então precisa continuar sendo um UserPrincipal
+        return new UserPrincipal(((UserPrincipal) user).getUser().toBuilder()
+                .password(newPassword)
+                .build());
+    }
+
+    /**
+     * Remove o usuário dos caches positivo e negativo; deve ser chamado após o commit da alteração.
+     */
+    public void evict(String username) {
+        users.invalidate(username);
+        unknownUsernames.invalidate(username);
+    }
+}
@@ -0,0 +1,81 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.config.ReadReplicaRoutingDataSource;
+import com.vmtecnologia.vm_teste_tecnico.config.TokenDigest;
+import com.vmtecnologia.vm_teste_tecnico.model.RevokedToken;
+import com.vmtecnologia.vm_teste_tecnico.repository.RevokedTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+public class JpaTokenRevocationStore implements TokenRevocationStore {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Override
+    @Transactional
+    public void save(TokenDigest digest, long expiresAtMillis) {
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenHash(digest.toHex())
+                .expiresAt(expiresAtMillis)
+                .build());
+    }
+
+    // Revogações são lidas sempre do primário: pela réplica, um logout recente ainda não valeria
+    @Override
+    @Transactional(readOnly = true)
+    public boolean contains(TokenDigest digest) {
+        return ReadReplicaRoutingDataSource.onPrimary(() -> revokedTokenRepository.existsById(digest.toHex()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Instant forEachRevokedSince(Instant since, long nowMillis, Consumer<Revocation> consumer) {
+        // Na réplica, uma revogação replicada depois do cursor seria pulada pela sincronização incremental
+        return ReadReplicaRoutingDataSource.onPrimary(() -> loadRevokedSince(since, nowMillis, consumer));
+    }
+
+    private Instant loadRevokedSince(Instant since, long nowMillis, Consumer<Revocation> consumer) {
+        Instant latest = since;
+
+        if (since != null) {
+            for (RevokedToken token : revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtGreaterThan(since, nowMillis)) {
+                latest = accept(token, latest, consumer);
+            }
+            return latest;
+        }
+
+        // Carga inicial paginada por chave, sem OFFSET
+        String lastHash = "";
+        List<RevokedToken> page;
+        do {
+            page = revokedTokenRepository.findTop1000ByTokenHashGreaterThanAndExpiresAtGreaterThanOrderByTokenHashAsc(lastHash, nowMillis);
+            for (RevokedToken token : page) {
+                latest = accept(token, latest, consumer);
+                lastHash = token.getTokenHash();
+            }
+        } while (page.size() == 1000);
+
+        return latest;
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired(long nowMillis) {
+        return revokedTokenRepository.deleteExpired(nowMillis);
+    }
+
+    private Instant accept(RevokedToken token, Instant latest, Consumer<Revocation> consumer) {
+        consumer.accept(new Revocation(TokenDigest.fromHex(token.getTokenHash()), token.getExpiresAt(), token.getRevokedAt()));
+        if (latest == null || token.getRevokedAt().isAfter(latest)) {
+            return token.getRevokedAt();
+        }
+        return latest;
+    }
+}
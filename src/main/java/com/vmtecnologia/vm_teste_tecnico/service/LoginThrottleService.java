@@ -0,0 +1,72 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.config.LoginThrottleProperties;
+import com.vmtecnologia.vm_teste_tecnico.exception.TooManyRequestsException;
+import com.vmtecnologia.vm_teste_tecnico.util.StripedThrottle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Protege o login contra força bruta: limita tentativas por username e por IP, bloqueia
+ * exponencialmente após falhas seguidas e admite um número fixo de verificações de senha
+ * simultâneas, recusando o excedente em vez de enfileirá-lo.
+ */
+@Slf4j
+@Service
+public class LoginThrottleService {
+
+    private final StripedThrottle byUsername;
+    private final StripedThrottle byIp;
+    private final Semaphore admission;
+
+    public LoginThrottleService(LoginThrottleProperties properties) {
+        this.byUsername = create(properties.stripes(), properties.username());
+        this.byIp = create(properties.stripes(), properties.ip());
+        int maxConcurrent = properties.maxConcurrent() > 0
+                ? properties.maxConcurrent()
+                : 2 * Runtime.getRuntime().availableProcessors();
+        this.admission = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Executa a verificação de senha se a tentativa for admitida, registrando o resultado.
+     * Falhas são sinalizadas pelo lançamento de {@code failureType}.
+     */
+    public <T> T attempt(String username, String clientIp,
+                         Class<? extends RuntimeException> failureType, Supplier<T> verification) {
+        long now = System.currentTimeMillis();
+        long wait = Math.max(byUsername.tryAcquire(username, now), byIp.tryAcquire(clientIp, now));
+        if (wait > 0) {
+            log.warn("Tentativa de login limitada para usuário {} a partir de {}", username, clientIp);
+            throw new TooManyRequestsException("Muitas tentativas de login, tente novamente mais tarde",
+                    Math.max(1, (wait + 999) / 1000));
+        }
+
+        if (!admission.tryAcquire()) {
+            throw new TooManyRequestsException("Serviço de autenticação sobrecarregado, tente novamente", 1);
+        }
+        try {
+            T result = verification.get();
+            // Só o username é liberado: um login válido não deve zerar as falhas acumuladas pelo IP
+            byUsername.recordSuccess(username);
+            return result;
+        } catch (RuntimeException e) {
+            if (failureType.isInstance(e)) {
+                long failedAt = System.currentTimeMillis();
+                byUsername.recordFailure(username, failedAt);
+                byIp.recordFailure(clientIp, failedAt);
+            }
+            throw e;
+        } finally {
+            admission.release();
+        }
+    }
+
+    private static StripedThrottle create(int stripes, LoginThrottleProperties.Limit limit) {
+        return new StripedThrottle(stripes, limit.ratePerMinute(), limit.burst(),
+                limit.lockoutThreshold(), limit.lockoutBaseMillis(), limit.lockoutMaxMillis());
+    }
+}
@@ -0,0 +1,107 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.config.JwtConfig;
+import com.vmtecnologia.vm_teste_tecnico.config.TokenDigest;
+import com.vmtecnologia.vm_teste_tecnico.model.RefreshToken;
+import com.vmtecnologia.vm_teste_tecnico.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Refresh tokens opacos e rotativos. Cada uso gera um novo token da mesma família; apresentar
+ * um token já usado indica vazamento e revoga a família inteira.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenEpochService tokenEpochService;
+    private final JwtConfig jwtConfig;
+
+    public record Rotation(String username, String refreshToken) {
+    }
+
+    @Transactional
+    public String issue(String username, long tokenVersion) {
+        return issue(username, tokenVersion, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Consome o refresh token e emite o próximo da família. A verificação custa um SHA-256 e um
+     * UPDATE condicional, sem passar pelo PasswordEncoder.
+     */
+    @Transactional(noRollbackFor = AuthenticationException.class)
+    public Rotation rotate(String rawToken) {
+        String tokenHash = TokenDigest.of(rawToken).toHex();
+        RefreshToken current = refreshTokenRepository.findById(tokenHash)
+                .orElseThrow(() -> new BadCredentialsException("Refresh token inválido"));
+
+        if (refreshTokenRepository.markUsed(tokenHash, System.currentTimeMillis()) == 0) {
+            if (current.isUsed() && !current.isRevoked()) {
+                // Reuso: o token foi copiado; o legítimo e o atacante perdem a sessão
+                int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId());
+                log.warn("Reuso de refresh token detectado para {}; {} tokens da família revogados",
+                        current.getUsername(), revoked);
+            }
+            throw new BadCredentialsException("Refresh token inválido ou expirado");
+        }
+
+        if (current.getTokenVersion() != tokenEpochService.currentEpoch(current.getUsername())) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new BadCredentialsException("Refresh token revogado");
+        }
+
+        String next = issue(current.getUsername(), current.getTokenVersion(), current.getFamilyId());
+        return new Rotation(current.getUsername(), next);
+    }
+
+    /**
+     * Revoga a família do refresh token no logout. Tokens de outro usuário são ignorados, sem indicar
+     * se existem.
+     */
+    @Transactional
+    public void revoke(String rawToken, String username) {
+        refreshTokenRepository.findById(TokenDigest.of(rawToken).toHex())
+                .filter(token -> token.getUsername().equals(username))
+                .ifPresent(token -> {
+                    int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId());
+                    log.debug("{} refresh tokens revogados no logout de {}", revoked, username);
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:600000}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = refreshTokenRepository.deleteExpired(System.currentTimeMillis());
+        log.debug("Refresh tokens expirados removidos: {}", removed);
+    }
+
+    private String issue(String username, long tokenVersion, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = ENCODER.encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(TokenDigest.of(rawToken).toHex())
+                .username(username)
+                .familyId(familyId)
+                .tokenVersion(tokenVersion)
+                .expiresAt(System.currentTimeMillis() + jwtConfig.getRefreshExpirationTime())
+                .build());
+        return rawToken;
+    }
+}
@@ -1,69 +1,182 @@
 package com.vmtecnologia.vm_teste_tecnico.service;
 
-import com.vmtecnologia.vm_teste_tecnico.config.JwtConfig;
+import com.vmtecnologia.vm_teste_tecnico.config.TokenDigest;
+import com.vmtecnologia.vm_teste_tecnico.util.BloomFilter;
 import io.jsonwebtoken.*;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 @Service
 @Slf4j
 public class TokenBlacklistService {
 
-    private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
-    private final SecretKey secretKey;
+    // Largura de cada balde de expiração; entradas vivem no máximo isso além do "exp" do token
+    static final long BUCKET_WIDTH_MILLIS = 60_000;
 
-    public TokenBlacklistService(JwtConfig jwtConfig) {
-        this.secretKey = jwtConfig.getSecretKey();
+    private final TokenVerificationService tokenVerificationService;
+    private final TokenRevocationStore revocationStore;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long pollOverlapMillis;
+
+    // Near-cache local das revogações de todos os nós: índice O(1) de digests (16 bytes por token)
+    private final Set<TokenDigest> revokedTokens = ConcurrentHashMap.newKeySet();
+
+    // Baldes ordenados pelo instante de expiração, removidos inteiros quando vencem
+    private final ConcurrentNavigableMap<Long, Set<TokenDigest>> expirationBuckets = new ConcurrentSkipListMap<>();
+
+    // Responde "certamente não revogado" para quase todas as requisições
+    private volatile BloomFilter bloomFilter;
+
+    // Até a primeira sincronização o near-cache está incompleto e o store é consultado diretamente
+    private volatile boolean synced;
+    private volatile Instant lastRevokedAt;
+
+    public TokenBlacklistService(TokenVerificationService tokenVerificationService,
+                                 TokenRevocationStore revocationStore,
+                                 @Value("${jwt.revocation.bloom.expected-insertions:1000000}") long expectedInsertions,
+                                 @Value("${jwt.revocation.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                                 @Value("${jwt.revocation.poll-interval:5000}") long pollIntervalMillis) {
+        this.tokenVerificationService = tokenVerificationService;
+        this.revocationStore = revocationStore;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        // Relê uma janela sobreposta para não perder revogações confirmadas fora de ordem
+        this.pollOverlapMillis = 2 * pollIntervalMillis;
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
     }
 
-    public void blacklistToken(String token) {
+    @PostConstruct
+    public void init() {
+        refreshFromStore();
+    }
+
+    public void blacklistToken(CharSequence token) {
+        TokenDigest digest = TokenDigest.of(token);
         try {
-            Jws<Claims> jws = Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
-
-            // Verifica se o token já expirou
-            if (jws.getPayload().getExpiration().after(new Date())) {
-                blacklistedTokens.add(token);
-                log.debug("Token adicionado à blacklist: {}", token);
-            }
+            Claims claims = tokenVerificationService.verify(digest, token);
+            revoke(digest, claims.getExpiration().getTime());
         } catch (ExpiredJwtException e) {
-            log.warn("Token expirado recebido para blacklist: {}", token);
+            log.warn("Token expirado recebido para blacklist: {}", digest.toHex());
         } catch (JwtException | IllegalArgumentException e) {
-            log.warn("Token inválido recebido para blacklist: {} - Erro: {}", token, e.getMessage());
+            log.warn("Token inválido recebido para blacklist: {} - Erro: {}", digest.toHex(), e.getMessage());
+        }
+    }
+
+    public void revoke(TokenDigest digest, long expiresAtMillis) {
+        // Tokens já expirados são recusados pelo parser, não precisam ser revogados
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
         }
+
+        remember(digest, expiresAtMillis);
+        revocationStore.save(digest, expiresAtMillis);
+        log.debug("Token adicionado à blacklist: {} (expira em {})", digest.toHex(), new Date(expiresAtMillis));
     }
 
     public boolean isTokenBlacklisted(String token) {
-        return token == null || token.isEmpty() || blacklistedTokens.contains(token);
+        return token == null || token.isEmpty() || isTokenBlacklisted(TokenDigest.of(token));
+    }
+
+    public boolean isTokenBlacklisted(TokenDigest digest) {
+        if (!synced) {
+            return revokedTokens.contains(digest) || revocationStore.contains(digest);
+        }
+        if (!bloomFilter.mightContain(digest.high(), digest.low())) {
+            return false;
+        }
+        return revokedTokens.contains(digest);
+    }
+
+    public int size() {
+        return revokedTokens.size();
     }
 
-    @Scheduled(fixedRate = 3600000) // Limpeza a cada hora
+    /**
+     * Traz para o near-cache as revogações feitas em qualquer nó desde a última consulta.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval:5000}",
+            initialDelayString = "${jwt.revocation.poll-interval:5000}")
+    public void refreshFromStore() {
+        Instant since = lastRevokedAt == null ? null : lastRevokedAt.minusMillis(pollOverlapMillis);
+        try {
+            Instant latest = revocationStore.forEachRevokedSince(since, System.currentTimeMillis(),
+                    revocation -> remember(revocation.digest(), revocation.expiresAtMillis()));
+            if (latest != null && (lastRevokedAt == null || latest.isAfter(lastRevokedAt))) {
+                lastRevokedAt = latest;
+            }
+            synced = true;
+        } catch (RuntimeException e) {
+            log.warn("Falha ao sincronizar revogações de token: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedRate = BUCKET_WIDTH_MILLIS)
     public void cleanupExpiredTokens() {
-        log.info("Iniciando limpeza de tokens expirados na blacklist...");
-        int initialSize = blacklistedTokens.size();
-
-        blacklistedTokens.removeIf(token -> {
-            try {
-                Claims claims = Jwts.parser()
-                        .verifyWith(secretKey)
-                        .build()
-                        .parseSignedClaims(token)
-                        .getPayload();
-
-                return claims.getExpiration().before(new Date());
-            } catch (JwtException | IllegalArgumentException e) {
-                return true; // Remove tokens inválidos
+        int removed = purgeExpired(System.currentTimeMillis());
+        if (removed > 0) {
+            rebuildBloomFilter();
+            log.info("Limpeza da blacklist concluída. Tokens removidos: {}", removed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:600000}")
+    public void purgeStore() {
+        try {
+            int removed = revocationStore.purgeExpired(System.currentTimeMillis());
+            log.debug("Revogações expiradas removidas do store: {}", removed);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao limpar revogações expiradas: {}", e.getMessage());
+        }
+    }
+
+    private void remember(TokenDigest digest, long expiresAtMillis) {
+        expirationBuckets
+                .computeIfAbsent(expiresAtMillis / BUCKET_WIDTH_MILLIS, bucket -> ConcurrentHashMap.newKeySet())
+                .add(digest);
+        revokedTokens.add(digest);
+        bloomFilter.put(digest.high(), digest.low());
+    }
+
+    /**
+     * Remove apenas os baldes cujo intervalo já terminou, sem reprocessar nenhum token.
+     */
+    int purgeExpired(long nowMillis) {
+        long currentBucket = nowMillis / BUCKET_WIDTH_MILLIS;
+        int removed = 0;
+
+        Map.Entry<Long, Set<TokenDigest>> bucket;
+        while ((bucket = expirationBuckets.firstEntry()) != null && bucket.getKey() < currentBucket) {
+            if (expirationBuckets.remove(bucket.getKey(), bucket.getValue())) {
+                for (TokenDigest digest : bucket.getValue()) {
+                    if (revokedTokens.remove(digest)) {
+                        removed++;
+                    }
+                }
             }
-        });
+        }
+        return removed;
+    }
 
-        log.info("Limpeza concluída. Tokens removidos: {}", initialSize - blacklistedTokens.size());
+    /**
+     * Filtros de Bloom não suportam remoção; após a limpeza um novo filtro é montado a partir
+     * do índice. A segunda passada cobre revogações registradas no filtro antigo durante a troca.
+     */
+    private void rebuildBloomFilter() {
+        BloomFilter rebuilt = new BloomFilter(expectedInsertions, falsePositiveRate);
+        revokedTokens.forEach(digest -> rebuilt.put(digest.high(), digest.low()));
+        bloomFilter = rebuilt;
+        revokedTokens.forEach(digest -> rebuilt.put(digest.high(), digest.low()));
     }
-}
\ No newline at end of file
+}
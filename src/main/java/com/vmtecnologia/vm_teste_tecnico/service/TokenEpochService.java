@@ -0,0 +1,102 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vmtecnologia.vm_teste_tecnico.config.ReadReplicaRoutingDataSource;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import com.vmtecnologia.vm_teste_tecnico.util.AfterCommit;
+import com.vmtecnologia.vm_teste_tecnico.util.AsyncLoads;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+/**
+ * Época de tokens por usuário. Cada token carrega a época vigente na emissão (claim "ver");
+ * incrementar a época revoga de uma vez todos os tokens anteriores do usuário, sem guardar
+ * nenhum deles.
+ */
+@Slf4j
+@Service
+public class TokenEpochService {
+
+    public static final String CLAIM = "ver";
+
+    // Época de usuários excluídos: nenhum token emitido coincide com ela
+    static final long DELETED = -1;
+
+    private final UserRepository userRepository;
+
+    // username -> época; recarregado periodicamente para enxergar alterações feitas em outros nós.
+    // Assíncrono para que a consulta ao banco não rode dentro do compute do mapa (ver AsyncLoads)
+    private final AsyncLoadingCache<String, Long> epochs;
+
+    public TokenEpochService(UserRepository userRepository,
+                             @Value("${jwt.epoch.refresh-interval:5000}") long refreshIntervalMillis,
+                             @Value("${jwt.epoch.maximum-size:100000}") long maximumSize) {
+        this.userRepository = userRepository;
+        this.epochs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(Duration.ofMillis(refreshIntervalMillis))
+                // Limita a defasagem de entradas ociosas, que só seriam recarregadas no próximo acesso
+                .expireAfterWrite(Duration.ofMillis(2 * refreshIntervalMillis))
+                .executor(AsyncLoads.executor())
+                .buildAsync(this::load);
+    }
+
+    /**
+     * Compara a época do token com a do usuário. Tokens emitidos antes da existência do claim
+     * valem como época 0.
+     */
+    public boolean isCurrent(Claims claims) {
+        String username = claims.getSubject();
+        if (username == null) {
+            return false;
+        }
+        Long tokenEpoch = claims.get(CLAIM, Long.class);
+        return AsyncLoads.join(epochs.get(username)) == (tokenEpoch == null ? 0L : tokenEpoch);
+    }
+
+    public long currentEpoch(String username) {
+        return AsyncLoads.join(epochs.get(username));
+    }
+
+    /**
+     * Revoga todos os tokens já emitidos para o usuário ("sair de todos os dispositivos").
+     */
+    @Transactional
+    public void revokeAll(String username) {
+        userRepository.incrementTokenVersion(username);
+        long epoch = load(username);
+        AfterCommit.run(() -> epochs.synchronous().put(username, epoch));
+        log.info("Todos os tokens do usuário {} foram revogados (época {})", username, epoch);
+    }
+
+    /**
+     * Publica a nova época localmente; deve ser chamado após o commit da alteração.
+     */
+    public void update(String username, long epoch) {
+        epochs.synchronous().put(username, epoch);
+    }
+
+    /**
+     * Descarta a época em memória; a próxima verificação relê o valor do banco. Usado após
+     * alterações em massa, em que a nova época de cada usuário não é lida de volta.
+     */
+    public void evict(String username) {
+        epochs.synchronous().invalidate(username);
+    }
+
+    public void markDeleted(String username) {
+        epochs.synchronous().put(username, DELETED);
+    }
+
+    // Sempre do primário: pela réplica, tokens revogados há pouco voltariam a valer até a replicação
+    private long load(String username) {
+        return ReadReplicaRoutingDataSource.onPrimary(() ->
+                userRepository.findTokenVersionByUsername(username).orElse(DELETED));
+    }
+}
@@ -0,0 +1,27 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.config.TokenDigest;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Armazenamento compartilhado entre os nós das revogações de token.
+ */
+public interface TokenRevocationStore {
+
+    void save(TokenDigest digest, long expiresAtMillis);
+
+    boolean contains(TokenDigest digest);
+
+    /**
+     * Entrega as revogações ainda válidas registradas a partir de {@code since}
+     * (todas, quando nulo) e retorna o maior instante de revogação visto.
+     */
+    Instant forEachRevokedSince(Instant since, long nowMillis, Consumer<Revocation> consumer);
+
+    int purgeExpired(long nowMillis);
+
+    record Revocation(TokenDigest digest, long expiresAtMillis, Instant revokedAt) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.vmtecnologia.vm_teste_tecnico.config.JwtKeyRing;
+import com.vmtecnologia.vm_teste_tecnico.config.TokenDigest;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class TokenVerificationService {
+
+    private final JwtKeyRing jwtKeyRing;
+
+    // Claims já verificados, indexados pelo digest do token e expirados no "exp" do próprio token
+    private final Cache<TokenDigest, Claims> verifiedTokens;
+
+    public TokenVerificationService(JwtKeyRing jwtKeyRing,
+                                    @Value("${jwt.cache.maximum-size:10000}") long maximumSize) {
+        this.jwtKeyRing = jwtKeyRing;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpireAtTokenExpiration())
+                .build();
+    }
+
+    public Claims verify(CharSequence token) throws JwtException {
+        return verify(TokenDigest.of(token), token);
+    }
+
+    /**
+     * Retorna os claims do token, verificando assinatura e expiração apenas na primeira vez
+     * que o token é visto. A consulta à blacklist continua sendo responsabilidade do chamador.
+     */
+    public Claims verify(TokenDigest digest, CharSequence token) throws JwtException {
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtKeyRing.getJwtParser()
+                .parseSignedClaims(token)
+                .getPayload();
+
+        verifiedTokens.put(digest, claims);
+        return claims;
+    }
+
+    public void invalidate(TokenDigest digest) {
+        verifiedTokens.invalidate(digest);
+    }
+
+    private static final class ExpireAtTokenExpiration implements Expiry<TokenDigest, Claims> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
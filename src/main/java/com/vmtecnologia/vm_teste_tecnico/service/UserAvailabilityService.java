@@ -0,0 +1,225 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.config.ReadReplicaRoutingDataSource;
+import com.vmtecnologia.vm_teste_tecnico.dto.AvailabilityDTO;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import com.vmtecnologia.vm_teste_tecnico.util.BloomFilter;
+import com.vmtecnologia.vm_teste_tecnico.util.Hashing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Consulta de disponibilidade de username e e-mail para o formulário de cadastro.
+ * Filtros de Bloom em memória respondem "livre" sem consultar o banco; apenas possíveis
+ * ocupados são confirmados com {@code existsBy...}. Usuários criados ou alterados em outros nós entram
+ * na sincronização periódica; até lá o cadastro continua protegido pelas constraints únicas.
+ */
+@Slf4j
+@Service
+public class UserAvailabilityService {
+
+    private static final long USERNAME_SEED = 0x5f3759dfL;
+    private static final long EMAIL_SEED = 0x2545f4914f6cdd1dL;
+
+    // Margem para usuários gravados por transações que começaram antes da última sincronização
+    // (o horário gravado é o do início da transação no banco)
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    // Cursor inicial com a tabela vazia
+    private static final LocalDateTime NEVER = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final UserRepository userRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final int maxSuggestions;
+
+    private volatile Index index;
+    // Maior data_atualizacao já lida: relógio do banco, comparável entre nós
+    private volatile LocalDateTime lastSeenUpdate;
+
+    // Sufixos testados por pedido de sugestões; limita o custo quando há muitos usernames com o mesmo prefixo
+    private static final int MAX_SUGGESTION_ATTEMPTS = 50;
+
+    /**
+     * Filtros de uma mesma carga; trocados juntos na reconstrução.
+     */
+    private record Index(BloomFilter usernames, BloomFilter emails, AtomicLong size) {
+    }
+
+    public UserAvailabilityService(UserRepository userRepository,
+                                   @Value("${users.availability.expected-insertions:1000000}") long expectedInsertions,
+                                   @Value("${users.availability.false-positive-rate:0.01}") double falsePositiveRate,
+                                   @Value("${users.availability.max-suggestions:5}") int maxSuggestions) {
+        this.userRepository = userRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    /**
+     * Carga completa na subida e a cada hora: remove usuários excluídos dos filtros
+     * (Bloom não suporta remoção) e redimensiona conforme a base cresce.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${users.availability.rebuild-interval:3600000}",
+            fixedDelayString = "${users.availability.rebuild-interval:3600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Index current = index;
+        long capacity = Math.max(expectedInsertions, current != null ? current.size().get() * 2 : 0);
+        Index rebuilt = new Index(new BloomFilter(capacity, falsePositiveRate), new BloomFilter(capacity, falsePositiveRate),
+                new AtomicLong());
+
+        LocalDateTime latest = NEVER;
+        try (Stream<UserRepository.Identity> identities = userRepository.streamIdentities()) {
+            for (Iterator<UserRepository.Identity> iterator = identities.iterator(); iterator.hasNext(); ) {
+                latest = add(rebuilt, iterator.next(), latest);
+            }
+        }
+        index = rebuilt;
+        lastSeenUpdate = latest;
+        log.info("Índice de disponibilidade montado com {} usuários", rebuilt.size().get());
+    }
+
+    /**
+     * Acrescenta usuários criados ou alterados desde a última leitura. O cursor é o maior horário
+     * gravado pelo banco, e não o relógio deste nó, então nós com relógios diferentes não perdem linhas.
+     */
+    @Scheduled(fixedDelayString = "${users.availability.sync-interval:10000}")
+    @Transactional(readOnly = true)
+    public void syncRecent() {
+        Index current = index;
+        if (current == null) {
+            return;
+        }
+        LocalDateTime latest = lastSeenUpdate;
+        for (UserRepository.Identity identity : userRepository.findIdentitiesUpdatedSince(latest.minus(SYNC_OVERLAP))) {
+            latest = add(current, identity, latest);
+        }
+        lastSeenUpdate = latest;
+    }
+
+    /**
+     * Registra um usuário recém-criado neste nó; chamado após o commit.
+     */
+    public void register(String username, String email) {
+        Index current = index;
+        if (current != null) {
+            add(current, username, email);
+        }
+    }
+
+    public AvailabilityDTO check(String username, String email) {
+        AvailabilityDTO.AvailabilityDTOBuilder result = AvailabilityDTO.builder();
+        if (StringUtils.hasText(username)) {
+            String requested = username.trim();
+            boolean available = isUsernameAvailable(requested);
+            result.username(requested)
+                    .usernameAvailable(available)
+                    .suggestions(available ? null : suggestUsernames(requested));
+        }
+        if (StringUtils.hasText(email)) {
+            String requested = email.trim();
+            result.email(requested).emailAvailable(isEmailAvailable(requested));
+        }
+        return result.build();
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        Index current = index;
+        if (current != null && !mightContain(current.usernames(), username, USERNAME_SEED)) {
+            return true;
+        }
+        return !ReadReplicaRoutingDataSource.onPrimary(() -> userRepository.existsByUsername(username));
+    }
+
+    public boolean isEmailAvailable(String email) {
+        Index current = index;
+        if (current != null && !mightContain(current.emails(), email, EMAIL_SEED)) {
+            return true;
+        }
+        return !ReadReplicaRoutingDataSource.onPrimary(() -> userRepository.existsByEmail(email));
+    }
+
+    /**
+     * Alternativas com sufixo numérico ({@code base1}, {@code base2}, ...), na ordem dos sufixos. Negativos do
+     * filtro de Bloom estão livres; os positivos são confirmados numa única consulta por {@code IN}. O número
+     * de sufixos testados é limitado, então o custo não depende de quantos usernames têm o mesmo prefixo.
+     */
+    List<String> suggestUsernames(String username) {
+        Index current = index;
+        if (current == null || maxSuggestions <= 0) {
+            return List.of();
+        }
+        String base = username.replaceFirst("\\d+$", "");
+        if (base.isEmpty()) {
+            base = username;
+        }
+
+        List<String> candidates = new ArrayList<>();
+        List<String> possiblyTaken = new ArrayList<>();
+        int free = 0;
+        for (int suffix = 1; free < maxSuggestions && suffix <= MAX_SUGGESTION_ATTEMPTS; suffix++) {
+            String candidate = base + suffix;
+            if (candidate.equals(username)) {
+                continue;
+            }
+            candidates.add(candidate);
+            if (mightContain(current.usernames(), candidate, USERNAME_SEED)) {
+                possiblyTaken.add(candidate);
+            } else {
+                free++;
+            }
+        }
+        Set<String> existing = possiblyTaken.isEmpty() ? Set.of()
+                : ReadReplicaRoutingDataSource.onPrimary(() -> userRepository.findExistingUsernames(possiblyTaken));
+        return candidates.stream()
+                .filter(candidate -> !existing.contains(candidate))
+                .limit(maxSuggestions)
+                .toList();
+    }
+
+    // Devolve o maior horário de gravação visto até aqui
+    private static LocalDateTime add(Index index, UserRepository.Identity identity, LocalDateTime latest) {
+        add(index, identity.getUsername(), identity.getEmail());
+        LocalDateTime updatedAt = identity.getUpdatedAt();
+        return updatedAt != null && updatedAt.isAfter(latest) ? updatedAt : latest;
+    }
+
+    private static void add(Index index, String username, String email) {
+        if (username != null) {
+            put(index.usernames(), username, USERNAME_SEED);
+        }
+        if (email != null) {
+            put(index.emails(), email, EMAIL_SEED);
+        }
+        index.size().incrementAndGet();
+    }
+
+    // Normalização só para o hash: variações de caixa caem na mesma posição e são confirmadas no banco
+    private static void put(BloomFilter filter, String value, long seed) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        filter.put(Hashing.hash(normalized, seed), Hashing.hash(normalized, ~seed));
+    }
+
+    private static boolean mightContain(BloomFilter filter, String value, long seed) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        return filter.mightContain(Hashing.hash(normalized, seed), Hashing.hash(normalized, ~seed));
+    }
+}
@@ -0,0 +1,168 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBulkAction;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBulkProgress;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBulkRequest;
+import com.vmtecnologia.vm_teste_tecnico.exception.BusinessException;
+import com.vmtecnologia.vm_teste_tecnico.model.User;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepositoryCustom.BulkTarget;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Alteração de perfil e exclusão em massa. Os usuários são percorridos em ordem de id em blocos;
+ * cada bloco é uma seleção com {@code FOR UPDATE} e um único UPDATE/DELETE por {@code IN} na própria
+ * transação curta, sem carregar entidades. Caches locais são limpos após o commit de cada bloco e o progresso é escrito em NDJSON.
+ */
+@Slf4j
+@Service
+public class UserBulkService {
+
+    private static final Set<String> ROLES = Set.of("USER", "ADMIN");
+
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final TokenEpochService tokenEpochService;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserDTOCache userDTOCache;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final ObjectWriter progressWriter;
+    private final int chunkSize;
+
+    public UserBulkService(UserRepository userRepository,
+                           UserService userService,
+                           TokenEpochService tokenEpochService,
+                           CustomUserDetailsService userDetailsService,
+                           UserDTOCache userDTOCache,
+                           TransactionTemplate transactionTemplate,
+                           TaskExecutor taskExecutor,
+                           ObjectMapper objectMapper,
+                           @Value("${users.bulk.chunk-size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.tokenEpochService = tokenEpochService;
+        this.userDetailsService = userDetailsService;
+        this.userDTOCache = userDTOCache;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.progressWriter = objectMapper.writerFor(UserBulkProgress.class);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Recusa pedidos sem filtro ou sem perfil válido; chamado antes de a resposta começar a ser transmitida.
+     */
+    public void validate(UserBulkRequest request) {
+        boolean filtered = (request.getIds() != null && !request.getIds().isEmpty())
+                || StringUtils.hasText(request.getRole())
+                || StringUtils.hasText(request.getNameContains())
+                || request.getCreatedBefore() != null;
+        if (!filtered) {
+            throw new BusinessException("Informe ao menos um filtro (ids, role, nameContains ou createdBefore)");
+        }
+        if (request.getAction() == UserBulkAction.CHANGE_ROLE && !ROLES.contains(request.getNewRole())) {
+            throw new BusinessException("Perfil inválido: " + request.getNewRole());
+        }
+    }
+
+    public void execute(UserBulkRequest request, OutputStream output) throws IOException {
+        validate(request);
+        long afterId = 0;
+        int chunks = 0;
+        long totalAffected = 0;
+        while (true) {
+            Chunk chunk;
+            try {
+                chunk = applyChunk(request, afterId);
+            } catch (RuntimeException e) {
+                // Blocos anteriores já foram gravados; a operação pode ser repetida com os mesmos filtros
+                log.error("Falha no bloco {} da operação em massa {}", chunks + 1, request.getAction(), e);
+                write(UserBulkProgress.failed(chunks, totalAffected, "Falha ao gravar o bloco: " + e.getMessage()), output);
+                return;
+            }
+            if (chunk == null) {
+                break;
+            }
+            afterId = chunk.targets().get(chunk.targets().size() - 1).id();
+            chunks++;
+            totalAffected += chunk.affected();
+            write(UserBulkProgress.running(chunks, chunk.affected(), totalAffected), output);
+        }
+        write(UserBulkProgress.done(chunks, totalAffected), output);
+        log.info("Operação em massa {} concluída: {} usuários em {} blocos", request.getAction(), totalAffected, chunks);
+    }
+
+    private record Chunk(List<BulkTarget> targets, int affected) {
+    }
+
+    /**
+     * Seleciona e altera o bloco na mesma transação: as linhas ficam travadas desde a seleção, e o
+     * UPDATE/DELETE repete os filtros, então um usuário alterado por outra requisição nesse meio-tempo
+     * (por exemplo, promovido a ADMIN) deixa de ser atingido em vez de ser alterado pelos dados antigos.
+     */
+    private Chunk applyChunk(UserBulkRequest request, long afterId) {
+        Chunk chunk = transactionTemplate.execute(status -> {
+            List<BulkTarget> targets = userRepository.findBulkTargets(request, afterId, chunkSize);
+            if (targets.isEmpty()) {
+                return null;
+            }
+            List<Long> ids = targets.stream().map(BulkTarget::id).toList();
+            return new Chunk(targets, request.getAction() == UserBulkAction.DELETE
+                    ? userRepository.deleteBulkTargets(request, ids)
+                    : userRepository.updateBulkRole(request, ids));
+        });
+        if (chunk == null) {
+            return null;
+        }
+        List<BulkTarget> targets = chunk.targets();
+
+        // Transação já confirmada: limpa os caches locais dos usuários do bloco
+        for (BulkTarget target : targets) {
+            userDTOCache.invalidate(target.id());
+            userDetailsService.evict(target.username());
+            if (request.getAction() == UserBulkAction.DELETE) {
+                tokenEpochService.markDeleted(target.username());
+            } else {
+                tokenEpochService.evict(target.username());
+            }
+        }
+
+        if (request.isNotifyUsers()) {
+            List<BulkTarget> notified = request.getAction() == UserBulkAction.DELETE
+                    ? targets
+                    : targets.stream().filter(target -> !request.getNewRole().equals(target.role())).toList();
+            if (!notified.isEmpty()) {
+                taskExecutor.execute(() -> notified.forEach(target -> notify(request, target)));
+            }
+        }
+        return chunk;
+    }
+
+    private void notify(UserBulkRequest request, BulkTarget target) {
+        User user = User.builder().name(target.name()).email(target.email()).role(request.getNewRole()).build();
+        if (request.getAction() == UserBulkAction.DELETE) {
+            userService.sendAccountDeletionEmail(user);
+        } else {
+            userService.sendRoleChangeEmail(user);
+        }
+    }
+
+    private void write(UserBulkProgress progress, OutputStream output) throws IOException {
+        output.write(progressWriter.writeValueAsBytes(progress));
+        output.write('\n');
+        output.flush();
+    }
+}
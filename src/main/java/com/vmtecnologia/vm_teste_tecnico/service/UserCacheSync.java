@@ -0,0 +1,88 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.config.ReadReplicaRoutingDataSource;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leva aos caches deste nó as alterações de usuários feitas em outros nós: a cada intervalo lê, pelo
+ * cursor de data_atualizacao (relógio do banco), os usuários criados ou alterados e os remove do
+ * {@link UserDTOCache} e dos caches de credenciais, inclusive do cache negativo de usernames.
+ * A defasagem entre nós fica limitada a {@code users.cache.sync-interval}. Exclusões não deixam linha
+ * para ler: o usuário excluído em outro nó sai do cache de {@code UserDTO} pelo TTL
+ * ({@code users.cache.ttl}), e o login já é barrado antes disso pela época de tokens.
+ */
+@Slf4j
+@Component
+public class UserCacheSync {
+
+    // Mesma margem da sincronização de disponibilidade: o horário gravado é o do início da transação
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private static final LocalDateTime NEVER = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final UserRepository userRepository;
+    private final UserDTOCache userDTOCache;
+    private final CustomUserDetailsService userDetailsService;
+
+    private volatile LocalDateTime lastSeenUpdate;
+
+    // Alterações já aplicadas dentro da margem, para não invalidar a mesma linha a cada leitura
+    private final Map<Long, LocalDateTime> applied = new HashMap<>();
+
+    public UserCacheSync(UserRepository userRepository,
+                         UserDTOCache userDTOCache,
+                         CustomUserDetailsService userDetailsService) {
+        this.userRepository = userRepository;
+        this.userDTOCache = userDTOCache;
+        this.userDetailsService = userDetailsService;
+    }
+
+    /**
+     * Começa do momento da subida: os caches ainda estão vazios, não há o que invalidar antes disso.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        lastSeenUpdate = ReadReplicaRoutingDataSource.onPrimary(() -> userRepository.findLatestUpdate()).orElse(NEVER);
+    }
+
+    // Lida do primário: numa réplica atrasada a linha poderia aparecer só depois que o cursor já passou
+    @Scheduled(fixedDelayString = "${users.cache.sync-interval:5000}")
+    public synchronized void syncRecent() {
+        LocalDateTime latest = lastSeenUpdate;
+        if (latest == null) {
+            return;
+        }
+        LocalDateTime since = latest.minus(SYNC_OVERLAP);
+        List<UserRepository.Change> changes = ReadReplicaRoutingDataSource.onPrimary(
+                () -> userRepository.findChangesSince(since));
+
+        int invalidated = 0;
+        for (UserRepository.Change change : changes) {
+            if (!change.getUpdatedAt().equals(applied.put(change.getId(), change.getUpdatedAt()))) {
+                userDTOCache.invalidate(change.getId());
+                userDetailsService.evict(change.getUsername());
+                invalidated++;
+            }
+            if (change.getUpdatedAt().isAfter(latest)) {
+                latest = change.getUpdatedAt();
+            }
+        }
+        LocalDateTime horizon = latest.minus(SYNC_OVERLAP);
+        applied.values().removeIf(updatedAt -> updatedAt.isBefore(horizon));
+        lastSeenUpdate = latest;
+        if (invalidated > 0) {
+            log.debug("{} usuários alterados removidos dos caches locais", invalidated);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.dto.UserSortField;
+import com.vmtecnologia.vm_teste_tecnico.exception.BusinessException;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserDTO;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token de continuação da listagem por cursor. Guarda a ordenação e a chave (campo ordenado, id)
+ * do último registro entregue; o cliente só o repassa, sem interpretar o conteúdo.
+ */
+record UserCursor(UserSortField sortField, Sort.Direction direction, String sortKey, long id) {
+
+    private static final String SEPARATOR = "\n";
+
+    static UserCursor after(UserDTO last, UserSortField sortField, Sort.Direction direction) {
+        return new UserCursor(sortField, direction, String.valueOf(sortField.getExtractor().apply(last)), last.getId());
+    }
+
+    String encode() {
+        String raw = String.join(SEPARATOR, sortField.name(), direction.name(), Long.toString(id), sortKey);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static UserCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            UserCursor cursor = new UserCursor(UserSortField.valueOf(parts[0]), Sort.Direction.valueOf(parts[1]),
+                    parts[3], Long.parseLong(parts[2]));
+            cursor.sortField.getParser().apply(cursor.sortKey);
+            return cursor;
+        } catch (RuntimeException e) {
+            throw new BusinessException("Cursor de paginação inválido");
+        }
+    }
+
+    // O id desempata registros com o mesmo valor no campo ordenado
+    static Sort sort(UserSortField sortField, Sort.Direction direction) {
+        Sort sort = Sort.by(direction, sortField.getProperty());
+        return sortField == UserSortField.ID ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    KeysetScrollPosition position() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(sortField.getProperty(), sortField.getParser().apply(sortKey));
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+}
@@ -0,0 +1,70 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserDTO;
+import com.vmtecnologia.vm_teste_tecnico.util.AsyncLoads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Cache de leitura de {@link UserDTO} por id, limitado por tamanho e TTL.
+ * Usuários inexistentes não são guardados. A invalidação é feita pelo {@link UserService} após o commit;
+ * se uma carga do mesmo id estiver em andamento, o future dela sai do cache na hora, então um valor
+ * lido antes do commit não sobrevive à invalidação. As cargas rodam fora do mapa ({@link AsyncLoads}).
+ * Alterações feitas em outros nós chegam pelo {@link UserCacheSync}; exclusões, apenas pelo TTL.
+ */
+@Slf4j
+@Component
+public class UserDTOCache {
+
+    private final AsyncCache<Long, UserDTO> users;
+
+    public UserDTOCache(@Value("${users.cache.ttl:30000}") long ttlMillis,
+                        @Value("${users.cache.maximum-size:10000}") long maximumSize) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .executor(AsyncLoads.executor())
+                .buildAsync();
+    }
+
+    public UserDTO get(Long id, Function<Long, UserDTO> loader) {
+        return AsyncLoads.join(users.get(id, loader));
+    }
+
+    /**
+     * Busca vários ids de uma vez: os ausentes do cache são carregados juntos pelo {@code loader},
+     * que devolve apenas os encontrados. Cada id ausente ganha o seu future no cache antes da carga,
+     * e o resultado só completa esse future: um id invalidado no meio da carga não volta ao cache.
+     */
+    public Map<Long, UserDTO> getAll(Collection<Long> ids, Function<Set<? extends Long>, Map<Long, UserDTO>> loader) {
+        return AsyncLoads.join(users.getAll(ids, loader));
+    }
+
+    public void invalidate(Long id) {
+        users.synchronous().invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return users.synchronous().stats();
+    }
+
+    @Scheduled(fixedDelayString = "${users.cache.stats-interval:300000}")
+    void logStats() {
+        CacheStats stats = stats();
+        log.info("Cache de usuários: {} entradas, {} acertos, {} falhas (taxa de acerto {}), {} remoções por limite",
+                users.synchronous().estimatedSize(), stats.hitCount(), stats.missCount(),
+                String.format("%.2f", stats.hitRate()), stats.evictionCount());
+    }
+}
@@ -0,0 +1,88 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserFileFormat;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de todos os usuários direto do cursor do banco para a resposta. As linhas são
+ * projetadas em {@link UserDTO} (nada fica no contexto de persistência) e escritas uma a uma, então
+ * a memória não cresce com o tamanho da base e apenas uma conexão fica ocupada durante a exportação.
+ */
+@Slf4j
+@Service
+public class UserExportService {
+
+    static final String CSV_HEADER = "id,name,username,email,createdAt,role";
+
+    private final UserRepository userRepository;
+    private final ObjectWriter jsonWriter;
+
+    public UserExportService(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.jsonWriter = objectMapper.writerFor(UserDTO.class);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportUsers(UserFileFormat format, OutputStream output) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(output, 64 * 1024);
+        long count = 0;
+        if (format == UserFileFormat.CSV) {
+            writeLine(buffered, CSV_HEADER);
+        }
+        try (Stream<UserDTO> users = userRepository.streamAllDTO()) {
+            Iterator<UserDTO> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                UserDTO user = iterator.next();
+                if (format == UserFileFormat.CSV) {
+                    writeLine(buffered, toCsv(user));
+                } else {
+                    buffered.write(jsonWriter.writeValueAsBytes(user));
+                    buffered.write('\n');
+                }
+                count++;
+            }
+        }
+        buffered.flush();
+        log.info("Exportação de usuários concluída: {} registros em {}", count, format);
+        return count;
+    }
+
+    private static void writeLine(OutputStream output, String line) throws IOException {
+        output.write(line.getBytes(StandardCharsets.UTF_8));
+        output.write('\n');
+    }
+
+    static String toCsv(UserDTO user) {
+        return String.join(",",
+                String.valueOf(user.getId()),
+                csvValue(user.getName()),
+                csvValue(user.getUsername()),
+                csvValue(user.getEmail()),
+                user.getCreatedAt() != null ? user.getCreatedAt().toString() : "",
+                csvValue(user.getRole()));
+    }
+
+    // Aspas apenas quando necessário (RFC 4180), com aspas internas duplicadas
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
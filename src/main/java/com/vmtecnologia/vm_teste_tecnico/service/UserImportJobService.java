@@ -0,0 +1,184 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserFileFormat;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserImportJob;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importações em massa em segundo plano. O arquivo enviado é copiado para um temporário e a requisição
+ * termina logo em seguida; a importação roda no {@link TaskExecutor} e grava o resultado de cada linha
+ * em outro temporário, liberado quando ela termina. A situação fica na memória do nó que recebeu o
+ * arquivo e é descartada, com os temporários, {@code users.import.job-retention} após o término.
+ */
+@Slf4j
+@Service
+public class UserImportJobService {
+
+    private final UserImportService userImportService;
+    private final TaskExecutor taskExecutor;
+    private final Cache<UUID, Job> jobs;
+
+    public UserImportJobService(UserImportService userImportService,
+                                TaskExecutor taskExecutor,
+                                @Value("${users.import.job-retention:3600000}") long retentionMillis) {
+        this.userImportService = userImportService;
+        this.taskExecutor = taskExecutor;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new RetainFinished(TimeUnit.MILLISECONDS.toNanos(retentionMillis)))
+                .scheduler(Scheduler.systemScheduler())
+                .executor(Runnable::run)
+                .removalListener((UUID id, Job job, RemovalCause cause) -> {
+                    // REPLACED é a própria importação regravada ao terminar
+                    if (job != null && cause != RemovalCause.REPLACED) {
+                        job.deleteFiles();
+                    }
+                })
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.invalidateAll();
+    }
+
+    /**
+     * Recebe o arquivo e agenda a importação.
+     *
+     * @return a situação inicial, com o id a ser consultado em {@link #find(UUID)}
+     */
+    public UserImportJob start(InputStream input, UserFileFormat format, boolean sendWelcomeEmail) throws IOException {
+        Path upload = Files.createTempFile("user-import-", ".upload");
+        Path results;
+        try {
+            Files.copy(input, upload, StandardCopyOption.REPLACE_EXISTING);
+            results = Files.createTempFile("user-import-", ".ndjson");
+        } catch (IOException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+
+        Job job = new Job(upload, results);
+        jobs.put(job.id, job);
+        try {
+            taskExecutor.execute(() -> run(job, format, sendWelcomeEmail));
+        } catch (RuntimeException e) {
+            finish(job, "Importação não pôde ser agendada: " + e.getMessage());
+            throw e;
+        }
+        log.info("Importação de usuários {} recebida ({} bytes)", job.id, Files.size(upload));
+        return job.snapshot();
+    }
+
+    public Optional<UserImportJob> find(UUID id) {
+        return Optional.ofNullable(jobs.getIfPresent(id)).map(Job::snapshot);
+    }
+
+    /**
+     * Arquivo NDJSON com o resultado de cada linha, disponível apenas depois que a importação terminou.
+     */
+    public Optional<Path> results(UUID id) {
+        Job job = jobs.getIfPresent(id);
+        return job != null && job.finishedAt != null ? Optional.of(job.results) : Optional.empty();
+    }
+
+    private void run(Job job, UserFileFormat format, boolean sendWelcomeEmail) {
+        String error = null;
+        try (InputStream input = Files.newInputStream(job.upload);
+             OutputStream output = new BufferedOutputStream(Files.newOutputStream(job.results))) {
+            userImportService.importUsers(input, format, sendWelcomeEmail, output, job::progress);
+        } catch (IOException | RuntimeException e) {
+            log.error("Falha na importação de usuários {}", job.id, e);
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        } finally {
+            deleteQuietly(job.upload);
+        }
+        finish(job, error);
+    }
+
+    // Regrava a entrada para que a retenção passe a contar a partir do término
+    private void finish(Job job, String error) {
+        job.error = error;
+        job.finishedAt = LocalDateTime.now();
+        jobs.asMap().replace(job.id, job, job);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o temporário da importação {}", path, e);
+        }
+    }
+
+    private static final class Job {
+        private final UUID id = UUID.randomUUID();
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final Path upload;
+        private final Path results;
+        private volatile int created;
+        private volatile int failed;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(Path upload, Path results) {
+            this.upload = upload;
+            this.results = results;
+        }
+
+        private void progress(int created, int failed) {
+            this.created = created;
+            this.failed = failed;
+        }
+
+        private UserImportJob snapshot() {
+            LocalDateTime finished = finishedAt;
+            String status = finished == null ? "RUNNING" : error == null ? "DONE" : "FAILED";
+            return new UserImportJob(id, status, created, failed, startedAt, finished, error);
+        }
+
+        private void deleteFiles() {
+            deleteQuietly(upload);
+            deleteQuietly(results);
+        }
+    }
+
+    // Importações em andamento nunca expiram; as terminadas ficam disponíveis pelo tempo de retenção
+    private record RetainFinished(long retentionNanos) implements Expiry<UUID, Job> {
+
+        @Override
+        public long expireAfterCreate(UUID id, Job job, long currentTime) {
+            return job.finishedAt != null ? retentionNanos : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID id, Job job, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, job, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID id, Job job, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.vmtecnologia.vm_teste_tecnico.dto.CreateUserDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserFileFormat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Lê o arquivo de importação linha a linha, sem carregar o conteúdo inteiro em memória.
+ * Aceita NDJSON (um objeto por linha) ou CSV com cabeçalho (name,username,email,password[,role]).
+ * Linhas malformadas viram {@link Row} com erro, para que o restante do arquivo continue sendo processado.
+ */
+class UserImportReader implements Iterator<UserImportReader.Row> {
+
+    record Row(long line, CreateUserDTO user, String error) {
+    }
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "username", "email", "password", "role");
+
+    private final BufferedReader reader;
+    private final UserFileFormat format;
+    private final ObjectReader jsonReader;
+    private Map<String, Integer> csvHeader;
+    private long lineNumber;
+    private String nextLine;
+
+    UserImportReader(BufferedReader reader, UserFileFormat format, ObjectReader jsonReader) {
+        this.reader = reader;
+        this.format = format;
+        this.jsonReader = jsonReader.forType(CreateUserDTO.class);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextLine != null) {
+            return true;
+        }
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == UserFileFormat.CSV && csvHeader == null) {
+                    csvHeader = parseHeader(line);
+                    continue;
+                }
+                nextLine = line;
+                return true;
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        nextLine = null;
+        try {
+            return new Row(lineNumber, format == UserFileFormat.CSV ? fromCsv(line) : jsonReader.readValue(line), null);
+        } catch (JsonProcessingException e) {
+            return new Row(lineNumber, null, "JSON inválido: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            return new Row(lineNumber, null, e.getMessage());
+        }
+    }
+
+    private static Map<String, Integer> parseHeader(String line) {
+        List<String> columns = splitCsv(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().toLowerCase(), i);
+        }
+        for (String required : CSV_COLUMNS.subList(0, 4)) {
+            if (!header.containsKey(required)) {
+                throw new IllegalArgumentException("Cabeçalho CSV sem a coluna obrigatória: " + required);
+            }
+        }
+        return header;
+    }
+
+    private CreateUserDTO fromCsv(String line) {
+        List<String> values = splitCsv(line);
+        if (values.size() < csvHeader.size()) {
+            throw new IllegalArgumentException("Linha CSV com " + values.size() + " colunas; esperado " + csvHeader.size());
+        }
+        CreateUserDTO user = new CreateUserDTO();
+        user.setName(column(values, "name"));
+        user.setUsername(column(values, "username"));
+        user.setEmail(column(values, "email"));
+        user.setPassword(column(values, "password"));
+        user.setRole(column(values, "role"));
+        return user;
+    }
+
+    private String column(List<String> values, String name) {
+        Integer index = csvHeader.get(name);
+        return index == null ? null : values.get(index);
+    }
+
+    // Separação RFC 4180: vírgulas dentro de aspas e aspas duplicadas ("") como escape
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Linha CSV com aspas não fechadas");
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -0,0 +1,313 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.vmtecnologia.vm_teste_tecnico.config.ReadReplicaRoutingDataSource;
+import com.vmtecnologia.vm_teste_tecnico.dto.CreateUserDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserFileFormat;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserImportResult;
+import com.vmtecnologia.vm_teste_tecnico.model.User;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa de usuários. O arquivo é lido e gravado em blocos: a memória usada depende
+ * do tamanho do bloco, não do arquivo. Em cada bloco as senhas são criptografadas em paralelo e os
+ * INSERTs vão em lote numa única transação; o resultado de cada linha é escrito assim que o bloco termina.
+ * O hashing usa encoder e pool próprios, menores que os do login, para que a importação não o atrase.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+    private static final Set<String> ROLES = Set.of("USER", "ADMIN");
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UserService userService;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenEpochService tokenEpochService;
+    private final UserAvailabilityService userAvailabilityService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
+    private final int chunkSize;
+    private final ExecutorService hashExecutor;
+
+    public UserImportService(UserRepository userRepository,
+                             @Qualifier("importPasswordEncoder") PasswordEncoder passwordEncoder,
+                             UserService userService,
+                             CustomUserDetailsService userDetailsService,
+                             TokenEpochService tokenEpochService,
+                             UserAvailabilityService userAvailabilityService,
+                             TransactionTemplate transactionTemplate,
+                             TaskExecutor taskExecutor,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             @Value("${users.import.chunk-size:500}") int chunkSize,
+                             @Value("${users.import.hashing.threads:0}") int hashingThreads) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userService = userService;
+        this.userDetailsService = userDetailsService;
+        this.tokenEpochService = tokenEpochService;
+        this.userAvailabilityService = userAvailabilityService;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writerFor(UserImportResult.class);
+        this.chunkSize = chunkSize;
+        // BCrypt é limitado por CPU: por padrão um quarto dos núcleos, o restante fica para login e cadastro
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+        this.hashExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashExecutor.shutdown();
+    }
+
+    /**
+     * Totais acumulados da importação, informados após cada bloco gravado.
+     */
+    @FunctionalInterface
+    public interface Progress {
+        void update(int created, int failed);
+    }
+
+    public void importUsers(InputStream input, UserFileFormat format, boolean sendWelcomeEmail,
+                            OutputStream output) throws IOException {
+        importUsers(input, format, sendWelcomeEmail, output, (created, failed) -> {
+        });
+    }
+
+    /**
+     * Lê os usuários de {@code input} e escreve em {@code output} uma linha NDJSON por linha importada.
+     *
+     * @param sendWelcomeEmail quando verdadeiro, os e-mails de boas-vindas são enviados em segundo plano
+     *                         após o commit de cada bloco; por padrão não são enviados
+     */
+    public void importUsers(InputStream input, UserFileFormat format, boolean sendWelcomeEmail,
+                            OutputStream output, Progress progress) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        UserImportReader rows = new UserImportReader(reader, format, objectMapper.reader());
+
+        List<UserImportReader.Row> chunk = new ArrayList<>(chunkSize);
+        int created = 0;
+        int failed = 0;
+        try {
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == chunkSize) {
+                    int chunkCreated = writeResults(importChunk(chunk, sendWelcomeEmail), output);
+                    created += chunkCreated;
+                    failed += chunk.size() - chunkCreated;
+                    progress.update(created, failed);
+                    chunk.clear();
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // Cabeçalho CSV inválido: nada mais pode ser lido do arquivo
+            failed++;
+            writeResults(List.of(UserImportResult.failed(1, null, e.getMessage())), output);
+        }
+        if (!chunk.isEmpty()) {
+            int chunkCreated = writeResults(importChunk(chunk, sendWelcomeEmail), output);
+            created += chunkCreated;
+            failed += chunk.size() - chunkCreated;
+        }
+        progress.update(created, failed);
+        log.info("Importação de usuários concluída: {} criados, {} com falha", created, failed);
+    }
+
+    List<UserImportResult> importChunk(List<UserImportReader.Row> chunk, boolean sendWelcomeEmail) {
+        UserImportResult[] results = new UserImportResult[chunk.size()];
+        List<Integer> accepted = validate(chunk, results);
+
+        // Hashing em paralelo; a ordem das linhas é preservada pelos índices
+        List<CompletableFuture<User>> hashing = accepted.stream()
+                .map(index -> CompletableFuture.supplyAsync(() -> toEntity(chunk.get(index).user()), hashExecutor))
+                .toList();
+        List<User> users = new ArrayList<>(accepted.size());
+        List<Integer> hashed = new ArrayList<>(accepted.size());
+        for (int i = 0; i < hashing.size(); i++) {
+            UserImportReader.Row row = chunk.get(accepted.get(i));
+            try {
+                users.add(hashing.get(i).join());
+                hashed.add(accepted.get(i));
+            } catch (CompletionException e) {
+                log.warn("Falha ao criptografar a senha da linha {}", row.line(), e.getCause());
+                results[accepted.get(i)] = UserImportResult.failed(row.line(), row.user().getUsername(),
+                        "Não foi possível processar a senha: " + e.getCause().getMessage());
+            }
+        }
+
+        List<User> saved = persist(users);
+        for (int i = 0; i < hashed.size(); i++) {
+            UserImportReader.Row row = chunk.get(hashed.get(i));
+            User user = saved.get(i);
+            results[hashed.get(i)] = user != null
+                    ? UserImportResult.created(row.line(), user.getUsername(), user.getId())
+                    : UserImportResult.failed(row.line(), row.user().getUsername(), "E-mail ou username já cadastrado");
+        }
+
+        List<User> createdUsers = saved.stream().filter(Objects::nonNull).toList();
+        createdUsers.forEach(user -> {
+            tokenEpochService.evict(user.getUsername());
+            userDetailsService.evict(user.getUsername());
+            userAvailabilityService.register(user.getUsername(), user.getEmail());
+        });
+        if (sendWelcomeEmail && !createdUsers.isEmpty()) {
+            taskExecutor.execute(() -> createdUsers.forEach(this::sendWelcomeEmail));
+        }
+        return Arrays.asList(results);
+    }
+
+    // Validação de formato, duplicidade dentro do bloco e no banco (uma consulta por coluna)
+    private List<Integer> validate(List<UserImportReader.Row> chunk, UserImportResult[] results) {
+        List<Integer> candidates = new ArrayList<>(chunk.size());
+        Set<String> emails = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            UserImportReader.Row row = chunk.get(i);
+            String error = row.error() != null ? row.error() : validationError(row.user());
+            if (error == null && !emails.add(row.user().getEmail())) {
+                error = "E-mail repetido no arquivo: " + row.user().getEmail();
+            }
+            if (error == null && !usernames.add(row.user().getUsername())) {
+                error = "Username repetido no arquivo: " + row.user().getUsername();
+            }
+            if (error != null) {
+                results[i] = UserImportResult.failed(row.line(), row.user() != null ? row.user().getUsername() : null, error);
+            } else {
+                candidates.add(i);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        // Unicidade conferida no primário, que é onde o INSERT vai esbarrar
+        Set<String> existingEmails = ReadReplicaRoutingDataSource.onPrimary(() -> userRepository.findExistingEmails(emails));
+        Set<String> existingUsernames = ReadReplicaRoutingDataSource.onPrimary(() -> userRepository.findExistingUsernames(usernames));
+        List<Integer> accepted = new ArrayList<>(candidates.size());
+        for (int index : candidates) {
+            UserImportReader.Row row = chunk.get(index);
+            if (existingEmails.contains(row.user().getEmail())) {
+                results[index] = UserImportResult.failed(row.line(), row.user().getUsername(),
+                        "Email já cadastrado: " + row.user().getEmail());
+            } else if (existingUsernames.contains(row.user().getUsername())) {
+                results[index] = UserImportResult.failed(row.line(), row.user().getUsername(),
+                        "Username já cadastrado: " + row.user().getUsername());
+            } else {
+                accepted.add(index);
+            }
+        }
+        return accepted;
+    }
+
+    private String validationError(CreateUserDTO user) {
+        if (user.getRole() == null || user.getRole().isBlank()) {
+            user.setRole("USER");
+        }
+        Set<ConstraintViolation<CreateUserDTO>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!ROLES.contains(user.getRole())) {
+            return "Perfil inválido: " + user.getRole();
+        }
+        return null;
+    }
+
+    private User toEntity(CreateUserDTO dto) {
+        return User.builder()
+                .name(dto.getName())
+                .username(dto.getUsername())
+                .email(dto.getEmail())
+                .password(passwordEncoder.encode(dto.getPassword()))
+                .role(dto.getRole())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Grava o bloco numa única transação com INSERTs em lote. Se outra requisição cadastrou o mesmo
+     * e-mail ou username no meio tempo, o bloco é refeito linha a linha para isolar as que conflitam;
+     * essas ficam nulas na lista devolvida.
+     */
+    private List<User> persist(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return transactionTemplate.execute(status -> userRepository.saveAll(users));
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar bloco de {} usuários; gravando individualmente", users.size(), e);
+        }
+        List<User> saved = new ArrayList<>(users.size());
+        for (User user : users) {
+            user.setId(null);
+            try {
+                saved.add(transactionTemplate.execute(status -> userRepository.save(user)));
+            } catch (RuntimeException e) {
+                saved.add(null);
+            }
+        }
+        return saved;
+    }
+
+    private int writeResults(List<UserImportResult> results, OutputStream output) throws IOException {
+        int created = 0;
+        for (UserImportResult result : results) {
+            output.write(resultWriter.writeValueAsBytes(result));
+            output.write('\n');
+            if ("CREATED".equals(result.status())) {
+                created++;
+            }
+        }
+        output.flush();
+        return created;
+    }
+
+    private void sendWelcomeEmail(User user) {
+        try {
+            userService.sendWelcomeEmail(user);
+        } catch (RuntimeException e) {
+            log.error("Falha no envio de email de boas-vindas para {}", user.getEmail(), e);
+        }
+    }
+}
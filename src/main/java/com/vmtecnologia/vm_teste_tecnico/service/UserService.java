@@ -1,24 +1,51 @@
 package com.vmtecnologia.vm_teste_tecnico.service;
 
+import com.vmtecnologia.vm_teste_tecnico.config.ReadReplicaRoutingDataSource;
+import com.vmtecnologia.vm_teste_tecnico.config.RoleAuthorities;
 import com.vmtecnologia.vm_teste_tecnico.dto.CreateUserDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.PatchUserDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBatchDTO;
 import com.vmtecnologia.vm_teste_tecnico.dto.UpdateUserDTO;
 import com.vmtecnologia.vm_teste_tecnico.dto.UserDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserSliceDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserSortField;
 import com.vmtecnologia.vm_teste_tecnico.exception.BusinessException;
 import com.vmtecnologia.vm_teste_tecnico.exception.EmailSendingException;
+import com.vmtecnologia.vm_teste_tecnico.exception.PasswordHashingRejectedException;
+import com.vmtecnologia.vm_teste_tecnico.exception.PreconditionFailedException;
 import com.vmtecnologia.vm_teste_tecnico.model.User;
 import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import com.vmtecnologia.vm_teste_tecnico.util.AfterCommit;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 @Transactional
@@ -26,9 +53,15 @@ import org.springframework.util.StringUtils;
 @Tag(name = "Serviço de Usuários", description = "Contém as operações de negócio relacionadas a usuários")
 public class UserService {
 
+    private static final Set<String> ROLES = Set.of("USER", "ADMIN");
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final TokenEpochService tokenEpochService;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserDTOCache userDTOCache;
+    private final UserAvailabilityService userAvailabilityService;
 
     @Transactional
     public UserDTO createUser(CreateUserDTO userDTO) {
@@ -37,6 +70,12 @@ public class UserService {
 
             User user = userDTO.toEntity(passwordEncoder);
             User savedUser = userRepository.save(user);
+            AfterCommit.run(() -> {
+                // Username de uma conta excluída: a época em memória ainda seria DELETED e recusaria os novos tokens
+                tokenEpochService.evict(savedUser.getUsername());
+                userDetailsService.evict(savedUser.getUsername());
+                userAvailabilityService.register(savedUser.getUsername(), savedUser.getEmail());
+            });
 
             sendWelcomeEmail(savedUser); // Pode lançar EmailSendingException
 
@@ -50,6 +89,9 @@ public class UserService {
             log.error("Violação de integridade ao criar usuário", e);
             throw new BusinessException("Email já está em uso");
 
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
+
         } catch (Exception e) {
             log.error("Erro inesperado ao criar usuário", e);
             throw new BusinessException("Erro ao processar seu cadastro");
@@ -58,9 +100,18 @@ public class UserService {
 
     @Transactional
     public UserDTO updateUser(Long id, UpdateUserDTO updateUserDTO) {
+        return updateUser(id, updateUserDTO, null);
+    }
+
+    /**
+     * @param expectedVersion versão informada no If-Match; quando presente e diferente da atual a
+     *                        atualização é recusada. Escritas concorrentes são barradas pelo {@code @Version}.
+     */
+    @Transactional
+    public UserDTO updateUser(Long id, UpdateUserDTO updateUserDTO, Long expectedVersion) {
+        validateRole(updateUserDTO.getRole());
         try {
-            User user = userRepository.findById(id)
-                    .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado para o id: " + id));
+            User user = findForUpdate(id, expectedVersion);
 
             if (!user.getEmail().equals(updateUserDTO.getEmail())) {
                 validateEmailNotInUse(updateUserDTO.getEmail());
@@ -70,42 +121,203 @@ public class UserService {
             user.setEmail(updateUserDTO.getEmail());
 
             if (updateUserDTO.getPassword() != null && !updateUserDTO.getPassword().isEmpty()) {
-                user.setPassword(passwordEncoder.encode(updateUserDTO.getPassword()));
+                changePassword(user, updateUserDTO.getPassword());
             }
-
             if (updateUserDTO.getRole() != null) {
-                user.setRole(updateUserDTO.getRole());
+                changeRole(user, updateUserDTO.getRole());
+            }
+
+            return saveUpdated(user);
+
+        } catch (EmailSendingException e) {
+            log.error("Falha no envio de email de atualização", e);
+            throw new BusinessException("Dados atualizados, mas não foi possível enviar o email de confirmação");
+        } catch (PasswordHashingRejectedException | PreconditionFailedException | OptimisticLockingFailureException
+                 | AccessDeniedException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Erro inesperado ao atualizar usuário", e);
+            throw new BusinessException("Erro ao atualizar seus dados");
+        }
+    }
+
+    /**
+     * Atualização parcial (JSON Merge Patch): só os campos presentes no documento são alterados.
+     * A unicidade do e-mail só é consultada quando ele muda e a senha só é recriptografada quando
+     * enviada; com {@code @DynamicUpdate} o UPDATE grava apenas as colunas alteradas.
+     */
+    @Transactional
+    public UserDTO patchUser(Long id, PatchUserDTO patch, Long expectedVersion) {
+        // Em Merge Patch, null remove o campo; nenhum destes pode ficar sem valor
+        requireValue(patch, "name", patch.getName());
+        requireValue(patch, "email", patch.getEmail());
+        requireValue(patch, "password", patch.getPassword());
+        requireValue(patch, "role", patch.getRole());
+        validateRole(patch.getRole());
+        try {
+            User user = findForUpdate(id, expectedVersion);
+
+            if (patch.has("name")) {
+                user.setName(patch.getName());
+            }
+            if (patch.has("email") && !user.getEmail().equals(patch.getEmail())) {
+                validateEmailNotInUse(patch.getEmail());
+                user.setEmail(patch.getEmail());
+            }
+            if (patch.has("password")) {
+                changePassword(user, patch.getPassword());
+            }
+            if (patch.has("role")) {
+                changeRole(user, patch.getRole());
             }
 
-            User updatedUser = userRepository.save(user);
-            sendUpdateEmail(updatedUser);
-            return convertToDTO(updatedUser);
+            return saveUpdated(user);
 
         } catch (EmailSendingException e) {
             log.error("Falha no envio de email de atualização", e);
             throw new BusinessException("Dados atualizados, mas não foi possível enviar o email de confirmação");
+        } catch (PasswordHashingRejectedException | PreconditionFailedException | OptimisticLockingFailureException
+                 | AccessDeniedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Erro inesperado ao atualizar usuário", e);
             throw new BusinessException("Erro ao atualizar seus dados");
         }
     }
 
+    private static void requireValue(PatchUserDTO patch, String field, String value) {
+        if (patch.has(field) && !StringUtils.hasText(value)) {
+            throw new BusinessException("O campo " + field + " não pode ser removido nem ficar vazio");
+        }
+    }
+
+    private User findForUpdate(Long id, Long expectedVersion) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado para o id: " + id));
+
+        if (expectedVersion != null && expectedVersion != user.getVersion()) {
+            throw new PreconditionFailedException("O usuário foi alterado por outra requisição; recarregue e tente novamente");
+        }
+        return user;
+    }
+
+    private void changePassword(User user, String rawPassword) {
+        user.setPassword(passwordEncoder.encode(rawPassword));
+        // Troca de senha encerra todas as sessões abertas
+        user.setTokenVersion(user.getTokenVersion() + 1);
+    }
+
+    private static void validateRole(String role) {
+        if (role != null && !ROLES.contains(role)) {
+            throw new BusinessException("Perfil inválido: " + role);
+        }
+    }
 
+    /**
+     * Só administradores alteram perfis: o claim "roles" é o que libera importação, exportação e ações
+     * em massa. Reenviar o perfil atual (PUT com o objeto completo) não é uma alteração.
+     */
+    private void changeRole(User user, String role) {
+        if (!role.equals(user.getRole())) {
+            requireAdmin();
+            user.setRole(role);
+            // Os perfis viajam no token; tokens emitidos com o perfil antigo deixam de valer
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+    }
+
+    private static void requireAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !RoleAuthorities.roleNames(authentication.getAuthorities()).contains("ADMIN")) {
+            throw new AccessDeniedException("Apenas administradores podem alterar o perfil de um usuário");
+        }
+    }
+
+    private UserDTO saveUpdated(User user) {
+        User updatedUser = userRepository.save(user);
+        // Flush antecipado: incrementa a versão (ETag da resposta) e expõe conflitos aqui mesmo
+        userRepository.flush();
+        AfterCommit.run(() -> {
+            tokenEpochService.update(updatedUser.getUsername(), updatedUser.getTokenVersion());
+            userDetailsService.evict(updatedUser.getUsername());
+            userDTOCache.invalidate(updatedUser.getId());
+            userAvailabilityService.register(updatedUser.getUsername(), updatedUser.getEmail());
+        });
+        sendUpdateEmail(updatedUser);
+        return convertToDTO(updatedUser);
+    }
+
+
+    @Transactional(readOnly = true)
     public Page<UserDTO> usersList(String nameFilter, Pageable pageable) {
         if (StringUtils.hasText(nameFilter)) {
-            return userRepository.findByNameContainingIgnoreCase(nameFilter, pageable)
-                    .map(this::convertToDTO);
+            return userRepository.findByNameContainingIgnoreCase(nameFilter, pageable);
+        }
+        return userRepository.findAllDTO(pageable);
+    }
+
+    /**
+     * Listagem por cursor para percorrer a tabela inteira. Quando há cursor, a ordenação gravada
+     * nele prevalece sobre os parâmetros, mantendo a sequência consistente entre as fatias.
+     */
+    @Transactional(readOnly = true)
+    public UserSliceDTO usersScroll(String nameFilter, UserSortField sortField, Sort.Direction direction,
+                                    String cursorToken, int size) {
+        UserCursor cursor = StringUtils.hasText(cursorToken) ? UserCursor.decode(cursorToken) : null;
+        if (cursor != null) {
+            sortField = cursor.sortField();
+            direction = cursor.direction();
         }
-        return userRepository.findAll(pageable)
-                .map(this::convertToDTO);
+        KeysetScrollPosition position = cursor != null ? cursor.position() : ScrollPosition.keyset();
+
+        Window<UserDTO> window = userRepository.scrollByName(nameFilter, UserCursor.sort(sortField, direction), size, position);
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            UserDTO last = window.getContent().get(window.size() - 1);
+            nextCursor = UserCursor.after(last, sortField, direction).encode();
+        }
+        return UserSliceDTO.builder()
+                .content(window.getContent())
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .build();
     }
 
+    // Leitura pelo cache: acertos não ocupam conexão do pool. Falhas vão ao primário: logo após a
+    // invalidação uma réplica atrasada devolveria o valor antigo, que ficaria no cache até o TTL
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public UserDTO findById(Long id) {
-        return userRepository.findById(id)
-                .map(this::convertToDTO)
+        return Optional.ofNullable(userDTOCache.get(id, key -> ReadReplicaRoutingDataSource.onPrimary(() ->
+                        userRepository.findDTOById(key).orElse(null))))
                 .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado para o id: " + id));
     }
 
+    /**
+     * Busca em lote para telas que exibem vários usuários: acertos vêm do mesmo cache do
+     * {@link #findById}, e os demais são carregados com um único {@code IN}.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public UserBatchDTO findByIds(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, UserDTO> found = userDTOCache.getAll(requested, missing -> ReadReplicaRoutingDataSource.onPrimary(() ->
+                userRepository.findAllDTOByIdIn(missing)
+                        .stream()
+                        .collect(Collectors.toMap(UserDTO::getId, Function.identity()))));
+
+        List<UserDTO> users = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            UserDTO user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return UserBatchDTO.builder().users(users).missingIds(missingIds).build();
+    }
+
     @Transactional
     public void deleteUser(Long id) {
         try {
@@ -113,6 +325,11 @@ public class UserService {
                     .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado para o id: " + id));
 
             userRepository.delete(user);
+            AfterCommit.run(() -> {
+                tokenEpochService.markDeleted(user.getUsername());
+                userDetailsService.evict(user.getUsername());
+                userDTOCache.invalidate(user.getId());
+            });
             sendAccountDeletionEmail(user);
 
         } catch (EmailSendingException e) {
@@ -128,9 +345,11 @@ public class UserService {
         UserDTO dto = new UserDTO();
         dto.setId(user.getId());
         dto.setName(user.getName());
+        dto.setUsername(user.getUsername());
         dto.setEmail(user.getEmail());
         dto.setCreatedAt(user.getCreatedAt());
         dto.setRole(user.getRole());
+        dto.setVersion(user.getVersion());
         return dto;
     }
 
@@ -141,7 +360,7 @@ public class UserService {
         }
     }
 
-    private void sendWelcomeEmail(User user) {
+    void sendWelcomeEmail(User user) {
         try {
             emailService.sendEmail(
                     user.getEmail(),
@@ -166,7 +385,20 @@ public class UserService {
         }
     }
 
-    private void sendAccountDeletionEmail(User user) {
+    void sendRoleChangeEmail(User user) {
+        try {
+            emailService.sendEmail(
+                    user.getEmail(),
+                    "Seu perfil de acesso foi alterado",
+                    "Olá " + user.getName() + ",\n\nSeu perfil de acesso agora é " + user.getRole()
+                            + ". Entre novamente para continuar usando o sistema."
+            );
+        } catch (Exception e) {
+            log.error("Erro ao enviar email para {}", user.getEmail(), e);
+        }
+    }
+
+    void sendAccountDeletionEmail(User user) {
         try {
             emailService.sendEmail(
                     user.getEmail(),
@@ -0,0 +1,43 @@
+package com.vmtecnologia.vm_teste_tecnico.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Apoio aos caches assíncronos do Caffeine cujas cargas vão ao banco. No cache síncrono a carga roda
+ * dentro do {@code compute} do mapa, sob {@code synchronized}: no JDK 21 uma thread virtual ali fica
+ * presa à thread portadora enquanto espera o bulkhead de conexões, e poucas esperas bastam para
+ * parar o agendador. No cache assíncrono o mapa guarda só o future e a carga roda em uma thread
+ * virtual própria; quem espera o resultado é liberado da portadora normalmente.
+ */
+public final class AsyncLoads {
+
+    private static final Executor EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private AsyncLoads() {
+    }
+
+    public static Executor executor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Aguarda a carga e relança a exceção original, para que erros de banco continuem chegando como
+     * {@code DataAccessException} e não embrulhados em {@link CompletionException}.
+     */
+    public static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.vmtecnologia.vm_teste_tecnico.util;
+
+import com.vmtecnologia.vm_teste_tecnico.dto.UserDTO;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * ETags fortes derivados da coluna de versão dos usuários: mudam sempre que algum campo exposto muda.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(UserDTO user) {
+        return "\"" + user.getVersion() + "\"";
+    }
+
+    /**
+     * ETag de uma página: resumo dos pares (id, versão) na ordem em que aparecem, mais os
+     * metadados que também fazem parte da resposta (por exemplo total de registros ou cursor).
+     */
+    public static String of(Collection<UserDTO> users, Object... metadata) {
+        StringBuilder source = new StringBuilder(users.size() * 16);
+        for (UserDTO user : users) {
+            source.append(user.getId()).append(':').append(user.getVersion()).append(';');
+        }
+        for (Object value : metadata) {
+            source.append('|').append(value);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(source.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Versão esperada a partir do If-Match; {@code null} quando ausente ou "*".
+     */
+    public static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return -1L; // nunca coincide com uma versão real
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.vmtecnologia.vm_teste_tecnico.util;
+
+/**
+ * Hash de 64 bits rápido e não criptográfico para textos curtos (usernames, e-mails, IPs).
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    // FNV-1a com semente seguido da finalização do MurmurHash3
+    public static long hash(CharSequence key, long seed) {
+        long h = seed ^ 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,139 @@
+package com.vmtecnologia.vm_teste_tecnico.util;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Limitador de tentativas sem locks e com memória fixa, independente do número de chaves.
+ * Cada chave é mapeada para uma faixa em duas linhas independentes (como um count-min sketch);
+ * uma chave só é bloqueada quando as duas linhas concordam, o que torna raras as colisões que
+ * afetariam usuários inocentes. As sementes aleatórias impedem colisões forjadas.
+ *
+ * <p>A taxa é controlada por GCRA (equivalente a um token bucket): cada faixa guarda apenas o
+ * instante teórico da próxima chegada. Falhas consecutivas geram bloqueio exponencial; a contagem
+ * expira quando a última falha fica mais antiga que o bloqueio máximo.
+ */
+public class StripedThrottle {
+
+    private static final int DEPTH = 2;
+
+    private final int mask;
+    private final int stripes;
+    private final long[] seeds = new long[DEPTH];
+
+    private final long emissionIntervalMillis;
+    private final long burstToleranceMillis;
+    private final int lockoutThreshold;
+    private final long lockoutBaseMillis;
+    private final long lockoutMaxMillis;
+
+    private final AtomicLongArray arrivals;
+    private final AtomicIntegerArray failures;
+    private final AtomicLongArray lastFailure;
+    private final AtomicLongArray lockedUntil;
+
+    public StripedThrottle(int stripes, int ratePerMinute, int burst,
+                           int lockoutThreshold, long lockoutBaseMillis, long lockoutMaxMillis) {
+        if (stripes <= 0 || ratePerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Parâmetros inválidos para o limitador");
+        }
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = size;
+        this.mask = size - 1;
+        this.emissionIntervalMillis = Math.max(1, 60_000L / ratePerMinute);
+        this.burstToleranceMillis = emissionIntervalMillis * (burst - 1);
+        this.lockoutThreshold = lockoutThreshold;
+        this.lockoutBaseMillis = lockoutBaseMillis;
+        this.lockoutMaxMillis = lockoutMaxMillis;
+
+        SecureRandom random = new SecureRandom();
+        for (int row = 0; row < DEPTH; row++) {
+            seeds[row] = random.nextLong();
+        }
+        this.arrivals = new AtomicLongArray(DEPTH * this.stripes);
+        this.failures = new AtomicIntegerArray(DEPTH * this.stripes);
+        this.lastFailure = new AtomicLongArray(DEPTH * this.stripes);
+        this.lockedUntil = new AtomicLongArray(DEPTH * this.stripes);
+    }
+
+    /**
+     * Consome uma tentativa da chave.
+     *
+     * @return 0 se a tentativa é permitida, ou quantos milissegundos esperar
+     */
+    public long tryAcquire(CharSequence key, long nowMillis) {
+        int[] slots = slots(key);
+
+        long lockedFor = Long.MAX_VALUE;
+        for (int slot : slots) {
+            lockedFor = Math.min(lockedFor, lockedUntil.get(slot) - nowMillis);
+        }
+        if (lockedFor > 0) {
+            return lockedFor;
+        }
+
+        boolean allowed = false;
+        long wait = Long.MAX_VALUE;
+        for (int slot : slots) {
+            long rowWait = acquire(slot, nowMillis);
+            allowed |= rowWait == 0;
+            wait = Math.min(wait, rowWait);
+        }
+        return allowed ? 0 : wait;
+    }
+
+    public void recordFailure(CharSequence key, long nowMillis) {
+        for (int slot : slots(key)) {
+            // Só falhas seguidas contam: após uma pausa maior que o bloqueio máximo o contador recomeça,
+            // o que também descarta falhas antigas de chaves que colidem na mesma faixa
+            long previous = lastFailure.getAndAccumulate(slot, nowMillis, Math::max);
+            if (nowMillis - previous > lockoutMaxMillis) {
+                failures.set(slot, 0);
+            }
+
+            int count = failures.incrementAndGet(slot);
+            if (count >= lockoutThreshold) {
+                int doublings = Math.min(count - lockoutThreshold, 30);
+                long duration = Math.min(lockoutMaxMillis, lockoutBaseMillis << doublings);
+                long until = nowMillis + duration;
+                lockedUntil.accumulateAndGet(slot, until, Math::max);
+            }
+        }
+    }
+
+    public void recordSuccess(CharSequence key) {
+        for (int slot : slots(key)) {
+            failures.set(slot, 0);
+        }
+    }
+
+    public int stripes() {
+        return stripes;
+    }
+
+    private long acquire(int slot, long nowMillis) {
+        while (true) {
+            long current = arrivals.get(slot);
+            long theoreticalArrival = Math.max(current, nowMillis);
+            long wait = theoreticalArrival - burstToleranceMillis - nowMillis;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrivals.compareAndSet(slot, current, theoreticalArrival + emissionIntervalMillis)) {
+                return 0;
+            }
+        }
+    }
+
+    private int[] slots(CharSequence key) {
+        int[] slots = new int[DEPTH];
+        for (int row = 0; row < DEPTH; row++) {
+            slots[row] = row * stripes + (int) (Hashing.hash(key, seeds[row]) & mask);
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,40 @@
+-- Esquema base. Idempotente para que bancos criados antes do Flyway possam ser migrados
+-- (spring.flyway.baseline-version = 0 faz esta versão rodar também sobre eles).
+
+CREATE TABLE IF NOT EXISTS users (
+    id            BIGSERIAL PRIMARY KEY,
+    name          VARCHAR(100) NOT NULL,
+    username      VARCHAR(255) NOT NULL,
+    email         VARCHAR(100) NOT NULL,
+    password      VARCHAR(200) NOT NULL,
+    data_criacao  TIMESTAMP(6),
+    role          VARCHAR(255),
+    token_version BIGINT       NOT NULL DEFAULT 0,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_hash VARCHAR(32)                 PRIMARY KEY,
+    expires_at BIGINT                      NOT NULL,
+    revoked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    token_hash    VARCHAR(32)                 PRIMARY KEY,
+    username      VARCHAR(255)                NOT NULL,
+    family_id     VARCHAR(36)                 NOT NULL,
+    token_version BIGINT                      NOT NULL,
+    expires_at    BIGINT                      NOT NULL,
+    used          BOOLEAN                     NOT NULL,
+    revoked       BOOLEAN                     NOT NULL,
+    created_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
@@ -0,0 +1,2 @@
+-- Trigramas para buscas por trecho do nome (LIKE '%termo%') usando índice
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
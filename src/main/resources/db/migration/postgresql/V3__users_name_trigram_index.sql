@@ -0,0 +1,4 @@
+-- Índice GIN de trigramas sobre LOWER(name), a mesma expressão usada por
+-- UserRepository.findByNameLike. CONCURRENTLY evita bloquear escritas durante a criação;
+-- o Flyway executa este script fora de transação por conter apenas este comando.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_trgm ON users USING gin (LOWER(name) gin_trgm_ops);
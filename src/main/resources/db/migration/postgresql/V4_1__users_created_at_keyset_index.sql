@@ -0,0 +1,2 @@
+-- Segundo índice da listagem por cursor (ver V4), em script próprio pelo mesmo motivo.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_created_at_id ON users (data_criacao, id);
@@ -0,0 +1,4 @@
+-- Índices compostos (campo, id) da listagem por cursor: cada fatia é um seek a partir da
+-- chave do último registro lido, na ordem em que o índice já está. Um índice por script: o
+-- CONCURRENTLY não roda em transação, e o Flyway só dispensa a transação em scripts de um comando.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_id ON users (name, id);
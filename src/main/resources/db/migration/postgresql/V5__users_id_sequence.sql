@@ -0,0 +1,5 @@
+-- Sequência dedicada com incremento 50 (allocationSize do User): o Hibernate reserva blocos de ids
+-- em memória e pode agrupar os INSERTs em lote, o que não é possível com coluna IDENTITY/serial.
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 1) FROM users;
@@ -0,0 +1,2 @@
+-- Versão para controle de concorrência otimista (@Version) e ETags da API
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
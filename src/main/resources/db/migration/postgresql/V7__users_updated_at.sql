@@ -0,0 +1,3 @@
+-- Horário (do banco) da última gravação do usuário: cursor da sincronização de disponibilidade,
+-- que precisa enxergar também trocas de username/e-mail e não depender do relógio de cada nó
+ALTER TABLE users ADD COLUMN IF NOT EXISTS data_atualizacao TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP;
@@ -0,0 +1,3 @@
+-- Índice da sincronização incremental (data_atualizacao >= :since). Script separado com um único
+-- comando para que o Flyway o execute fora de transação, como exige o CONCURRENTLY.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_data_atualizacao ON users (data_atualizacao);
@@ -0,0 +1,75 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import com.vmtecnologia.vm_teste_tecnico.exception.PasswordHashingRejectedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void encode_ShouldRejectImmediately_WhenQueueIsFull() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 4, 1, 1)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("senha1"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("senha2"));
+            while (encoder.queuedTasks() == 0) {
+                Thread.onSpinWait();
+            }
+
+            // Act & Assert
+            assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("senha3"));
+
+            release.countDown();
+            assertTrue(blocking.matches("senha1", running.get(5, TimeUnit.SECONDS)));
+            assertTrue(blocking.matches("senha2", queued.get(5, TimeUnit.SECONDS)));
+        }
+    }
+
+    @Test
+    void upgradeEncoding_ShouldFlagHashesWithLowerCost() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 1, 4)) {
+            assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("senha")));
+            assertFalse(encoder.upgradeEncoding(encoder.encode("senha")));
+            assertFalse(encoder.upgradeEncoding(null));
+        }
+    }
+
+    @Test
+    void upgradeEncoding_ShouldNotDowngradeHashesWithHigherCost() {
+        // Hash gravado por um nó com custo maior
+        String stronger = new BCryptPasswordEncoder(6).encode("senha");
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 1, 4)) {
+            assertFalse(encoder.upgradeEncoding(stronger));
+            assertTrue(encoder.matches("senha", stronger));
+        }
+    }
+
+    @Test
+    void calibrate_ShouldNeverGoBelowMinimumStrength() {
+        assertEquals(BoundedPasswordEncoder.MIN_STRENGTH, BoundedPasswordEncoder.calibrate(1));
+    }
+}
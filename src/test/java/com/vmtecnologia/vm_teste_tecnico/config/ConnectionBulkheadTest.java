@@ -0,0 +1,78 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionBulkheadTest {
+
+    private final DriverManagerDataSource database =
+            new DriverManagerDataSource("jdbc:h2:mem:bulkhead;DB_CLOSE_DELAY=-1", "sa", "");
+
+    @Test
+    void getConnection_ShouldQueueCallers_UntilAConnectionIsClosed() throws Exception {
+        // Arrange
+        ConnectionBulkhead bulkhead = new ConnectionBulkhead(database, 1, Duration.ofSeconds(10));
+        Connection first = bulkhead.getConnection();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Act
+            Future<Boolean> second = executor.submit(() -> {
+                try (Connection connection = bulkhead.getConnection()) {
+                    return connection.isValid(1);
+                }
+            });
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (bulkhead.getQueueDepth() == 0 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            int queuedWhileHeld = bulkhead.getQueueDepth();
+            first.close();
+
+            // Assert
+            assertEquals(1, queuedWhileHeld);
+            assertTrue(second.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0, bulkhead.getActivePermits());
+        assertEquals(2, bulkhead.getAcquisitions());
+    }
+
+    @Test
+    void getConnection_ShouldThrowTransientException_WhenWaitExceedsTimeout() throws Exception {
+        // Arrange
+        ConnectionBulkhead bulkhead = new ConnectionBulkhead(database, 1, Duration.ofMillis(50));
+
+        try (Connection held = bulkhead.getConnection()) {
+            // Act & Assert
+            assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+            assertEquals(1, bulkhead.getTimeouts());
+            assertTrue(held.isValid(1));
+        }
+    }
+
+    @Test
+    void close_ShouldReleasePermitOnlyOnce_WhenCalledTwice() throws Exception {
+        // Arrange
+        ConnectionBulkhead bulkhead = new ConnectionBulkhead(database, 2, Duration.ofSeconds(1));
+        Connection connection = bulkhead.getConnection();
+        Connection other = bulkhead.getConnection();
+
+        // Act
+        connection.close();
+        connection.close();
+
+        // Assert
+        assertEquals(1, bulkhead.getActivePermits());
+        other.close();
+        assertEquals(0, bulkhead.getActivePermits());
+    }
+}
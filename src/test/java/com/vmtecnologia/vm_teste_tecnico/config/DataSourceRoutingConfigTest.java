@@ -0,0 +1,106 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import com.vmtecnologia.vm_teste_tecnico.model.User;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import com.vmtecnologia.vm_teste_tecnico.service.JpaTokenRevocationStore;
+import com.vmtecnologia.vm_teste_tecnico.service.TokenEpochService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+
+// A "réplica" aponta para o mesmo H2 do primário, para que o esquema criado pelo Hibernate exista nos dois pools
+@DataJpaTest(properties = {
+        "datasource.routing.replicas[0].url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "datasource.routing.replicas[0].username=sa",
+        "datasource.routing.replicas[0].password="
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DataSourceRoutingConfig.class, JpaTokenRevocationStore.class, TokenEpochService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DataSourceRoutingConfigTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @MockitoSpyBean
+    private ReadReplicaRoutingDataSource readReplicaRoutingDataSource;
+
+    @Autowired
+    private JpaTokenRevocationStore jpaTokenRevocationStore;
+
+    @Autowired
+    private TokenEpochService tokenEpochService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyRepositoryCall_ShouldBorrowConnectionFromReplicaPool() {
+        // Arrange
+        userRepository.save(User.builder()
+                .name("Vinicius")
+                .username("vinicius")
+                .email("vinicius@vmtech.com")
+                .password("$2a$10$hash")
+                .role("USER")
+                .build());
+        HikariDataSource replica = (HikariDataSource) readReplicaRoutingDataSource.getResolvedDataSources().get("replica-0");
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        // Act
+        Long total = readOnly.execute(status -> userRepository.count());
+
+        // Assert
+        assertEquals(1, total);
+        assertNotNull(replica.getHikariPoolMXBean(), "o pool da réplica deveria ter sido iniciado");
+        assertTrue(replica.isReadOnly());
+        assertEquals("primary", primaryDataSource.getPoolName());
+    }
+
+    @Test
+    void revocationAndEpochReads_ShouldStayOnPrimary_ThoughTransactionsAreReadOnly() {
+        // Arrange
+        List<Object> lookupKeys = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            Object key = invocation.callRealMethod();
+            lookupKeys.add(key);
+            return key;
+        }).when(readReplicaRoutingDataSource).determineCurrentLookupKey();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+
+        // Act
+        jpaTokenRevocationStore.contains(TokenDigest.of("token"));
+        jpaTokenRevocationStore.forEachRevokedSince(null, System.currentTimeMillis(), revocation -> { });
+        tokenEpochService.currentEpoch("vinicius");
+        readOnly.execute(status -> userRepository.count());
+
+        // Assert
+        assertEquals(List.of("primary", "primary", "primary", "replica-0"), lookupKeys);
+    }
+}
@@ -0,0 +1,87 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatWebServerFactoryCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sobe um Tomcat com a configuração {@code server.*} do application.yaml e confere o IP que a
+ * aplicação enxerga (o mesmo usado pelo limitador de login).
+ */
+class ForwardedHeadersTest {
+
+    private WebServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private String remoteAddrSeenBehind(Map<String, Object> overrides, String forwardedFor) throws Exception {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("overrides", overrides));
+        for (PropertySource<?> source : new YamlPropertySourceLoader()
+                .load("application", new ClassPathResource("application.yaml"))) {
+            environment.getPropertySources().addLast(source);
+        }
+        ConfigurationPropertySources.attach(environment);
+        ServerProperties properties = Binder.get(environment).bind("server", ServerProperties.class).get();
+
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        new TomcatWebServerFactoryCustomizer(environment, properties).customize(factory);
+        server = factory.getWebServer(context -> context.addServlet("ip", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.getWriter().write(request.getRemoteAddr());
+            }
+        }).addMapping("/ip"));
+        server.start();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + "/ip"))
+                .header("X-Forwarded-For", forwardedFor)
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Test
+    void remoteAddr_ShouldBeClientIp_WhenRequestComesFromTrustedProxy() throws Exception {
+        // Act: a conexão parte de 127.0.0.1, que está na lista padrão de proxies confiáveis
+        String remoteAddr = remoteAddrSeenBehind(Map.of(), "203.0.113.7, 10.0.0.5");
+
+        // Assert
+        assertEquals("203.0.113.7", remoteAddr);
+    }
+
+    @Test
+    void remoteAddr_ShouldIgnoreForwardedHeader_WhenPeerIsNotTrusted() throws Exception {
+        // Act
+        String remoteAddr = remoteAddrSeenBehind(Map.of("TRUSTED_PROXIES", "10\\.0\\.0\\.1"), "203.0.113.7");
+
+        // Assert
+        assertEquals("127.0.0.1", remoteAddr);
+    }
+}
@@ -0,0 +1,53 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationTokenTest {
+
+    private static Claims parse(List<String> roles) {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret("Ab1!Xy9@Lu3#Pq7^ZrLm*Go2$TxQCsaeaefdf");
+        String token = Jwts.builder()
+                .subject("vinicius.vmtech")
+                .claim(RoleAuthorities.CLAIM, roles)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(jwtConfig.getSecretKey())
+                .compact();
+        return Jwts.parser().verifyWith(jwtConfig.getSecretKey()).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Test
+    void constructor_ShouldReuseInternedAuthorities_FromRolesClaim() {
+        // Act
+        JwtAuthenticationToken first = new JwtAuthenticationToken(parse(RoleAuthorities.claimFor("ADMIN")));
+        JwtAuthenticationToken second = new JwtAuthenticationToken(parse(RoleAuthorities.claimFor("ADMIN")));
+
+        // Assert
+        assertEquals("ROLE_ADMIN", first.getAuthorities().iterator().next().getAuthority());
+        assertSame(first.getAuthorities(), second.getAuthorities());
+        assertSame(RoleAuthorities.of("ADMIN"), first.getAuthorities());
+        assertTrue(first.isAuthenticated());
+    }
+
+    @Test
+    void constructor_ShouldHaveNoAuthorities_WhenClaimIsMissing() {
+        JwtAuthenticationToken token = new JwtAuthenticationToken(Jwts.claims().subject("legado").build());
+
+        assertTrue(token.getAuthorities().isEmpty());
+    }
+
+    @Test
+    void roleNames_ShouldRoundTripAuthorities() {
+        List<GrantedAuthority> authorities = RoleAuthorities.of("USER");
+
+        assertEquals(List.of("USER"), RoleAuthorities.roleNames(authorities));
+    }
+}
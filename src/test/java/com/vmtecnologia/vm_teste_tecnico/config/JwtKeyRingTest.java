@@ -0,0 +1,120 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private JwtConfig jwtConfig;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        jwtConfig.setSecret("Ab1!Xy9@Lu3#Pq7^ZrLm*Go2$TxQCsaeaefdf");
+        jwtConfig.setExpirationTime(86400000L);
+    }
+
+    private static JwtSigningProperties.Key key(String kid, KeyPair keyPair, boolean withPrivateKey) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        return new JwtSigningProperties.Key(
+                kid,
+                withPrivateKey ? encoder.encodeToString(keyPair.getPrivate().getEncoded()) : null,
+                encoder.encodeToString(keyPair.getPublic().getEncoded()));
+    }
+
+    private static String sign(JwtKeyRing keyRing) {
+        return keyRing.getActiveSigningKey()
+                .signWith(Jwts.builder()
+                        .subject("vinicius.vmtech")
+                        .expiration(new Date(System.currentTimeMillis() + 60_000)))
+                .compact();
+    }
+
+    @Test
+    void es256_ShouldSignWithActiveKidAndVerifyTokensOfPreviousKey() {
+        // Arrange
+        KeyPair previous = Jwts.SIG.ES256.keyPair().build();
+        KeyPair current = Jwts.SIG.ES256.keyPair().build();
+        JwtKeyRing oldRing = new JwtKeyRing(jwtConfig, new JwtSigningProperties("ES256", "k1",
+                List.of(key("k1", previous, true)), false));
+        JwtKeyRing rotatedRing = new JwtKeyRing(jwtConfig, new JwtSigningProperties("ES256", "k2",
+                List.of(key("k1", previous, false), key("k2", current, true)), false));
+
+        // Act
+        String oldToken = sign(oldRing);
+        String newToken = sign(rotatedRing);
+
+        // Assert
+        assertEquals("k2", rotatedRing.getJwtParser().parseSignedClaims(newToken).getHeader().getKeyId());
+        Claims claims = rotatedRing.getJwtParser().parseSignedClaims(oldToken).getPayload();
+        assertEquals("vinicius.vmtech", claims.getSubject());
+        assertThrows(JwtException.class, () -> oldRing.getJwtParser().parseSignedClaims(newToken));
+    }
+
+    @Test
+    void eddsa_ShouldPublishPublicKeysInJwks() {
+        // Arrange
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, new JwtSigningProperties("EdDSA", null, List.of(), true));
+
+        // Act
+        String token = sign(keyRing);
+        String jwks = keyRing.getJwks();
+
+        // Assert
+        String kid = keyRing.getActiveSigningKey().kid();
+        assertEquals("vinicius.vmtech", keyRing.getJwtParser().parseSignedClaims(token).getPayload().getSubject());
+        assertTrue(jwks.contains("\"kid\":\"" + kid + "\""));
+        assertTrue(jwks.contains("\"crv\":\"Ed25519\""));
+        assertFalse(jwks.contains("\"d\""));
+    }
+
+    @Test
+    void es256_ShouldFailStartup_WhenNoKeysAreConfiguredWithoutOptIn() {
+        // Arrange
+        JwtSigningProperties properties = new JwtSigningProperties("ES256", null, List.of(), false);
+
+        // Act & Assert
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> new JwtKeyRing(jwtConfig, properties));
+        assertTrue(error.getMessage().contains("jwt.signing.allow-ephemeral-key"));
+    }
+
+    @Test
+    void es256_ShouldRejectTokenWithoutKid_SignedWithHmacSecret() {
+        // Arrange
+        KeyPair keyPair = Jwts.SIG.ES256.keyPair().build();
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, new JwtSigningProperties("ES256", "k1",
+                List.of(key("k1", keyPair, true)), false));
+        String forged = Jwts.builder()
+                .subject("admin")
+                .claim("roles", List.of("ADMIN"))
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(jwtConfig.getSecretKey())
+                .compact();
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> keyRing.getJwtParser().parseSignedClaims(forged));
+    }
+
+    @Test
+    void hs256_ShouldKeepLegacyTokensWithoutKid() {
+        // Arrange
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig, new JwtSigningProperties("HS256", null, List.of(), false));
+
+        // Act
+        String token = sign(keyRing);
+
+        // Assert
+        assertNull(keyRing.getJwtParser().parseSignedClaims(token).getHeader().getKeyId());
+        assertEquals("{\"keys\":[]}", keyRing.getJwks());
+    }
+}
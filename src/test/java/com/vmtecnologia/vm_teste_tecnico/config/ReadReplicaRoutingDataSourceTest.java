@@ -0,0 +1,107 @@
+package com.vmtecnologia.vm_teste_tecnico.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = database("primary");
+    private final DataSource replica = database("replica");
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // Cada banco H2 identifica a si mesmo na tabela "origem"
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS origem (nome VARCHAR(20))");
+        jdbc.execute("DELETE FROM origem");
+        jdbc.update("INSERT INTO origem VALUES (?)", name);
+        return dataSource;
+    }
+
+    private record Routing(JdbcTemplate jdbc, TransactionTemplate readWrite, TransactionTemplate readOnly) {
+
+        String origin(TransactionTemplate transaction) {
+            return transaction.execute(status -> jdbc.queryForObject("SELECT nome FROM origem", String.class));
+        }
+    }
+
+    private Routing routing(Duration readYourWritesWindow) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primary, List.of(replica), readYourWritesWindow));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return new Routing(new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager), readOnly);
+    }
+
+    @Test
+    void getConnection_ShouldUseReplica_OnlyForReadOnlyTransactions() {
+        // Arrange
+        Routing routing = routing(Duration.ZERO);
+
+        // Act & Assert
+        assertEquals("replica", routing.origin(routing.readOnly()));
+        assertEquals("primary", routing.origin(routing.readWrite()));
+        assertEquals("primary", routing.jdbc().queryForObject("SELECT nome FROM origem", String.class));
+    }
+
+    @Test
+    void getConnection_ShouldReadFromPrimary_AfterUsersOwnWrite() {
+        // Arrange
+        Routing routing = routing(Duration.ofMinutes(1));
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("vinicius", null, List.of()));
+
+        // Act
+        String beforeWrite = routing.origin(routing.readOnly());
+        routing.readWrite().executeWithoutResult(status ->
+                routing.jdbc().update("UPDATE origem SET nome = nome"));
+        String afterWrite = routing.origin(routing.readOnly());
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("outro", null, List.of()));
+        String otherUser = routing.origin(routing.readOnly());
+
+        // Assert
+        assertEquals("replica", beforeWrite);
+        assertEquals("primary", afterWrite);
+        assertEquals("replica", otherUser);
+    }
+
+    @Test
+    void onPrimary_ShouldRouteReadOnlyTransactionsToPrimary_OnlyInsideTheBlock() {
+        // Arrange
+        Routing routing = routing(Duration.ZERO);
+
+        // Act
+        String pinned = ReadReplicaRoutingDataSource.onPrimary(() -> routing.origin(routing.readOnly()));
+        String nested = ReadReplicaRoutingDataSource.onPrimary(() -> {
+            ReadReplicaRoutingDataSource.onPrimary(() -> null);
+            return routing.origin(routing.readOnly());
+        });
+        String afterwards = routing.origin(routing.readOnly());
+
+        // Assert
+        assertEquals("primary", pinned);
+        assertEquals("primary", nested);
+        assertEquals("replica", afterwards);
+    }
+}
@@ -0,0 +1,31 @@
+package com.vmtecnologia.vm_teste_tecnico.config.filters;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BearerTokensTest {
+
+    @Test
+    void resolve_ShouldReturnTokenView_WhenHeaderHasBearerPrefix() {
+        CharSequence token = BearerTokens.resolve("Bearer abc.def.ghi ");
+
+        assertNotNull(token);
+        assertEquals("abc.def.ghi", token.toString());
+        assertEquals('a', token.charAt(0));
+        assertEquals(11, token.length());
+    }
+
+    @Test
+    void resolve_ShouldAcceptCaseInsensitiveScheme() {
+        assertEquals("abc", BearerTokens.resolve("bearer abc").toString());
+    }
+
+    @Test
+    void resolve_ShouldReturnNull_WhenHeaderIsNotBearer() {
+        assertNull(BearerTokens.resolve(null));
+        assertNull(BearerTokens.resolve("Basic dXNlcjpwYXNz"));
+        assertNull(BearerTokens.resolve("Bearer "));
+        assertNull(BearerTokens.resolve("Bearer"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.vmtecnologia.vm_teste_tecnico.repository;
+
+import com.vmtecnologia.vm_teste_tecnico.model.User;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Smoke test das migrações em um PostgreSQL real: o contexto sobe com Flyway habilitado sobre um banco
+ * criado antes do Flyway (como o das versões que usavam ddl-auto) e o Hibernate valida o mapeamento
+ * das entidades contra o esquema resultante. Ignorado quando não há Docker disponível.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class FlywayMigrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    // Tabela users como o Hibernate criava antes do Flyway: id IDENTITY, sem token_version nem versão
+    @BeforeAll
+    static void createPreFlywaySchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE users (
+                        id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        name         VARCHAR(100) NOT NULL,
+                        username     VARCHAR(255) NOT NULL UNIQUE,
+                        email        VARCHAR(100) NOT NULL UNIQUE,
+                        password     VARCHAR(200) NOT NULL,
+                        data_criacao TIMESTAMP(6),
+                        role         VARCHAR(255)
+                    )""");
+            statement.execute("INSERT INTO users (name, username, email, password, role) "
+                    + "VALUES ('Legado', 'legado', 'legado@vmtech.com', '$2a$10$hash', 'USER')");
+            statement.execute("CREATE DATABASE vazio");
+        }
+    }
+
+    @Test
+    void migrate_ShouldUpgradePreFlywaySchema_AndMatchEntityMappings() {
+        // Act
+        User legacy = userRepository.findByUsername("legado").orElseThrow();
+        User created = userRepository.saveAndFlush(User.builder()
+                .name("Novo")
+                .username("novo")
+                .email("novo@vmtech.com")
+                .password("$2a$10$hash")
+                .role("USER")
+                .build());
+
+        // Assert
+        assertEquals(0, legacy.getTokenVersion());
+        assertNotNull(legacy.getUpdatedAt());
+        assertTrue(created.getId() > legacy.getId());
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_indexes WHERE tablename = 'users' "
+                + "AND indexname IN ('idx_users_name_trgm', 'idx_users_name_id', 'idx_users_created_at_id', "
+                + "'idx_users_data_atualizacao')", Integer.class));
+    }
+
+    @Test
+    void migrate_ShouldApplyEveryScript_OnEmptyDatabase() {
+        // Arrange
+        Flyway flyway = Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl().replace("/" + POSTGRES.getDatabaseName(), "/vazio"),
+                        POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration/postgresql")
+                // Mesmo ajuste do application.yaml: sem ele o CREATE INDEX CONCURRENTLY fica esperando o lock
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load();
+
+        // Act
+        MigrateResult result = flyway.migrate();
+
+        // Assert
+        assertTrue(result.success);
+        assertEquals(flyway.info().all().length, result.migrationsExecuted);
+        assertEquals(0, flyway.info().pending().length);
+    }
+}
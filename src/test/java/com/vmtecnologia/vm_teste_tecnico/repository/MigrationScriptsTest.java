@@ -0,0 +1,57 @@
+package com.vmtecnologia.vm_teste_tecnico.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regras dos scripts do Flyway que não dependem de um PostgreSQL (ver {@link FlywayMigrationTest}).
+ */
+class MigrationScriptsTest {
+
+    private static Resource[] scripts() throws IOException {
+        return new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/postgresql/V*.sql");
+    }
+
+    private static List<String> statements(Resource script) throws IOException {
+        String sql = script.getContentAsString(StandardCharsets.UTF_8).replaceAll("(?m)--.*$", "");
+        return Arrays.stream(sql.split(";"))
+                .map(String::trim)
+                .filter(statement -> !statement.isEmpty())
+                .toList();
+    }
+
+    // O Flyway só executa fora de transação scripts com um único comando que não pode rodar em transação
+    @Test
+    void scripts_ShouldContainSingleStatement_WhenCreatingIndexConcurrently() throws IOException {
+        // Arrange
+        Resource[] scripts = scripts();
+
+        // Act & Assert
+        assertTrue(scripts.length > 0);
+        for (Resource script : scripts) {
+            List<String> statements = statements(script);
+            if (statements.stream().anyMatch(statement -> statement.toUpperCase().contains("CONCURRENTLY"))) {
+                assertEquals(1, statements.size(), script.getFilename());
+            }
+        }
+    }
+
+    @Test
+    void scripts_ShouldHaveUniqueVersions() throws IOException {
+        // Act
+        List<String> versions = Arrays.stream(scripts())
+                .map(script -> script.getFilename().substring(1, script.getFilename().indexOf("__")))
+                .toList();
+
+        // Assert
+        assertEquals(versions.size(), versions.stream().distinct().count(), versions.toString());
+    }
+}
@@ -0,0 +1,216 @@
+package com.vmtecnologia.vm_teste_tecnico.repository;
+
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBulkAction;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBulkRequest;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserDTO;
+import com.vmtecnologia.vm_teste_tecnico.model.User;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepositoryCustom.BulkTarget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private void save(String name, String username) {
+        userRepository.save(User.builder()
+                .name(name)
+                .username(username)
+                .email(username + "@vmtech.com")
+                .password("$2a$10$hash")
+                .role("USER")
+                .build());
+    }
+
+    @BeforeEach
+    void setUp() {
+        save("Vinicius Malmann", "vinicius");
+        save("Ana VINI Souza", "ana");
+        save("Carlos 100% Silva", "carlos");
+        save("Maria_Clara", "maria");
+    }
+
+    @Test
+    void findByNameContainingIgnoreCase_ShouldMatchInfixIgnoringCase() {
+        // Act
+        Page<UserDTO> page = userRepository.findByNameContainingIgnoreCase("vini", PageRequest.of(0, 10, Sort.by("name")));
+
+        // Assert
+        assertEquals(2, page.getTotalElements());
+        assertEquals("Ana VINI Souza", page.getContent().get(0).getName());
+    }
+
+    @Test
+    void findByNameContainingIgnoreCase_ShouldTreatWildcardsAsLiterals() {
+        // Act & Assert
+        assertEquals(1, userRepository.findByNameContainingIgnoreCase("100%", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(1, userRepository.findByNameContainingIgnoreCase("a_c", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(1, userRepository.findByNameContainingIgnoreCase("%", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void scrollByName_ShouldSeekFromLastKey_WhenWalkingAllSlices() {
+        // Arrange
+        save("Ana VINI Souza", "ana2");
+        Sort sort = Sort.by("name").and(Sort.by("id"));
+        List<String> usernames = new ArrayList<>();
+        KeysetScrollPosition position = ScrollPosition.keyset();
+
+        // Act
+        Window<UserDTO> window;
+        do {
+            window = userRepository.scrollByName(null, sort, 2, position);
+            window.forEach(user -> usernames.add(user.getUsername()));
+            UserDTO last = window.getContent().get(window.size() - 1);
+            position = ScrollPosition.forward(Map.of("name", last.getName(), "id", last.getId()));
+        } while (window.hasNext());
+
+        // Assert
+        assertEquals(List.of("ana", "ana2", "carlos", "maria", "vinicius"), usernames);
+    }
+
+    @Test
+    void scrollByName_ShouldSeekBackwards_WhenSortedDescending() {
+        // Arrange
+        save("Ana VINI Souza", "ana2");
+        Sort sort = Sort.by(Sort.Direction.DESC, "name").and(Sort.by(Sort.Direction.DESC, "id"));
+        List<String> usernames = new ArrayList<>();
+        KeysetScrollPosition position = ScrollPosition.keyset();
+
+        // Act
+        Window<UserDTO> window;
+        do {
+            window = userRepository.scrollByName(null, sort, 2, position);
+            window.forEach(user -> usernames.add(user.getUsername()));
+            UserDTO last = window.getContent().get(window.size() - 1);
+            position = ScrollPosition.forward(Map.of("name", last.getName(), "id", last.getId()));
+        } while (window.hasNext());
+
+        // Assert
+        assertEquals(List.of("vinicius", "maria", "carlos", "ana2", "ana"), usernames);
+    }
+
+    @Test
+    void findDTOById_ShouldProjectPublicFields() {
+        // Arrange
+        Long id = userRepository.findByUsername("maria").orElseThrow().getId();
+
+        // Act
+        UserDTO dto = userRepository.findDTOById(id).orElseThrow();
+
+        // Assert
+        assertEquals("Maria_Clara", dto.getName());
+        assertEquals("maria", dto.getUsername());
+        assertEquals("maria@vmtech.com", dto.getEmail());
+        assertNotNull(dto.getCreatedAt());
+    }
+
+    @Test
+    void findIdentitiesUpdatedSince_ShouldReturnChangedEmail_StampedByDatabaseClock() {
+        // Arrange
+        User maria = userRepository.findByUsername("maria").orElseThrow();
+        maria.setEmail("maria.clara@vmtech.com");
+        entityManager.flush();
+        entityManager.clear();
+        LocalDateTime stamped = userRepository.findByUsername("maria").orElseThrow().getUpdatedAt();
+
+        // Act
+        List<UserRepository.Identity> identities = userRepository.findIdentitiesUpdatedSince(stamped);
+
+        // Assert
+        assertNotNull(stamped);
+        assertTrue(identities.stream().anyMatch(identity -> "maria.clara@vmtech.com".equals(identity.getEmail())));
+    }
+
+    // Outra requisição altera o usuário entre a seleção do bloco e o UPDATE/DELETE
+    private void changeAfterSelection(String username, String role, String name) {
+        User user = userRepository.findByUsername(username).orElseThrow();
+        user.setRole(role);
+        user.setName(name);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void deleteBulkTargets_ShouldSkipTarget_WhoseRoleChangedAfterSelection() {
+        // Arrange
+        UserBulkRequest request = UserBulkRequest.builder().action(UserBulkAction.DELETE).role("USER").build();
+        List<Long> ids = userRepository.findBulkTargets(request, 0, 10).stream().map(BulkTarget::id).toList();
+        changeAfterSelection("ana", "ADMIN", "Ana VINI Souza");
+
+        // Act
+        int affected = userRepository.deleteBulkTargets(request, ids);
+
+        // Assert
+        assertEquals(4, ids.size());
+        assertEquals(3, affected);
+        assertEquals("ADMIN", userRepository.findByUsername("ana").orElseThrow().getRole());
+    }
+
+    @Test
+    void updateBulkRole_ShouldSkipTarget_ThatNoLongerMatchesNameFilter() {
+        // Arrange
+        UserBulkRequest request = UserBulkRequest.builder()
+                .action(UserBulkAction.CHANGE_ROLE)
+                .nameContains("vini")
+                .newRole("ADMIN")
+                .build();
+        List<Long> ids = userRepository.findBulkTargets(request, 0, 10).stream().map(BulkTarget::id).toList();
+        changeAfterSelection("ana", "USER", "Ana Souza");
+
+        // Act
+        int affected = userRepository.updateBulkRole(request, ids);
+
+        // Assert
+        assertEquals(2, ids.size());
+        assertEquals(1, affected);
+        assertEquals("USER", userRepository.findByUsername("ana").orElseThrow().getRole());
+        assertEquals("ADMIN", userRepository.findByUsername("vinicius").orElseThrow().getRole());
+    }
+
+    @Test
+    void updateBulkRole_ShouldStampUpdatedAt_SoOtherNodesSeeTheChange() {
+        // Arrange
+        LocalDateTime stale = LocalDateTime.of(2000, 1, 1, 0, 0);
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE users SET data_atualizacao = :stale WHERE username = 'maria'")
+                .setParameter("stale", stale)
+                .executeUpdate();
+        UserBulkRequest request = UserBulkRequest.builder()
+                .action(UserBulkAction.CHANGE_ROLE)
+                .ids(List.of(userRepository.findByUsername("maria").orElseThrow().getId()))
+                .newRole("ADMIN")
+                .build();
+        List<Long> ids = userRepository.findBulkTargets(request, 0, 10).stream().map(BulkTarget::id).toList();
+
+        // Act
+        userRepository.updateBulkRole(request, ids);
+
+        // Assert
+        List<UserRepository.Change> changes = userRepository.findChangesSince(stale.plusDays(1));
+        assertTrue(changes.stream().anyMatch(change -> "maria".equals(change.getUsername())));
+    }
+}
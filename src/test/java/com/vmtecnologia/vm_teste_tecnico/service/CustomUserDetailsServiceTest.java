@@ -0,0 +1,96 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.config.UserPrincipal;
+import com.vmtecnologia.vm_teste_tecnico.model.User;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomUserDetailsServiceTest {
+
+    private UserRepository userRepository;
+    private TokenEpochService tokenEpochService;
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        tokenEpochService = mock(TokenEpochService.class);
+        userDetailsService = new CustomUserDetailsService(userRepository, tokenEpochService, 60_000, 60_000, 100);
+    }
+
+    private static User user(long tokenVersion) {
+        return User.builder()
+                .id(1L)
+                .name("Vinicius")
+                .username("vinicius.vmtech")
+                .email("vinicius@vmtech.com")
+                .password("$2a$10$hash")
+                .role("USER")
+                .tokenVersion(tokenVersion)
+                .build();
+    }
+
+    @Test
+    void loadUserByUsername_ShouldServeFromCache_WhenEpochIsUnchanged() {
+        // Arrange
+        when(userRepository.findByUsername("vinicius.vmtech")).thenReturn(Optional.of(user(3)));
+        when(tokenEpochService.currentEpoch("vinicius.vmtech")).thenReturn(3L);
+
+        // Act
+        UserDetails first = userDetailsService.loadUserByUsername("vinicius.vmtech");
+        UserDetails second = userDetailsService.loadUserByUsername("vinicius.vmtech");
+
+        // Assert
+        assertSame(first, second);
+        assertEquals("ROLE_USER", first.getAuthorities().iterator().next().getAuthority());
+        assertEquals(3L, ((UserPrincipal) first).getUser().getTokenVersion());
+        verify(userRepository, times(1)).findByUsername("vinicius.vmtech");
+    }
+
+    @Test
+    void loadUserByUsername_ShouldReload_WhenEpochChangedOnAnotherNode() {
+        // Arrange
+        when(userRepository.findByUsername("vinicius.vmtech")).thenReturn(Optional.of(user(3)), Optional.of(user(4)));
+        when(tokenEpochService.currentEpoch("vinicius.vmtech")).thenReturn(4L);
+        userDetailsService.loadUserByUsername("vinicius.vmtech");
+
+        // Act
+        UserDetails reloaded = userDetailsService.loadUserByUsername("vinicius.vmtech");
+
+        // Assert
+        assertEquals(4L, ((UserPrincipal) reloaded).getUser().getTokenVersion());
+        verify(userRepository, times(2)).findByUsername("vinicius.vmtech");
+    }
+
+    @Test
+    void loadUserByUsername_ShouldUseNegativeCache_ForUnknownUsernames() {
+        // Arrange
+        when(userRepository.findByUsername("fantasma")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("fantasma"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("fantasma"));
+        verify(userRepository, times(1)).findByUsername("fantasma");
+    }
+
+    @Test
+    void evict_ShouldClearNegativeEntry_WhenUserIsCreated() {
+        // Arrange
+        when(userRepository.findByUsername("novo")).thenReturn(Optional.empty(), Optional.of(user(1)));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("novo"));
+
+        // Act
+        userDetailsService.evict("novo");
+
+        // Assert
+        assertNotNull(userDetailsService.loadUserByUsername("novo"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.config.TokenDigest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(JpaTokenRevocationStore.class)
+class JpaTokenRevocationStoreTest {
+
+    @Autowired
+    private TokenRevocationStore revocationStore;
+
+    @Test
+    void store_ShouldShareRevocationsAndPurgeExpiredOnes() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        TokenDigest active = TokenDigest.of("ativo");
+        TokenDigest expired = TokenDigest.of("expirado");
+        revocationStore.save(active, now + 60_000);
+        revocationStore.save(expired, now - 1_000);
+
+        // Act
+        List<TokenRevocationStore.Revocation> loaded = new ArrayList<>();
+        Instant latest = revocationStore.forEachRevokedSince(null, now, loaded::add);
+        int purged = revocationStore.purgeExpired(now);
+
+        // Assert
+        assertEquals(1, loaded.size());
+        assertEquals(active, loaded.get(0).digest());
+        assertNotNull(latest);
+        assertTrue(revocationStore.contains(active));
+        assertEquals(1, purged);
+        assertFalse(revocationStore.contains(expired));
+    }
+}
@@ -0,0 +1,95 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.config.JwtConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(RefreshTokenService.class)
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @MockitoBean
+    private TokenEpochService tokenEpochService;
+
+    @MockitoBean
+    private JwtConfig jwtConfig;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtConfig.getRefreshExpirationTime()).thenReturn(60_000L);
+        when(tokenEpochService.currentEpoch("vinicius.vmtech")).thenReturn(1L);
+    }
+
+    @Test
+    void rotate_ShouldIssueNextTokenOfSameFamily() {
+        // Arrange
+        String first = refreshTokenService.issue("vinicius.vmtech", 1L);
+
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first);
+
+        // Assert
+        assertEquals("vinicius.vmtech", rotation.username());
+        assertNotEquals(first, rotation.refreshToken());
+        assertEquals("vinicius.vmtech", refreshTokenService.rotate(rotation.refreshToken()).username());
+    }
+
+    @Test
+    void rotate_ShouldRevokeFamily_WhenTokenIsReused() {
+        // Arrange
+        String first = refreshTokenService.issue("vinicius.vmtech", 1L);
+        String second = refreshTokenService.rotate(first).refreshToken();
+
+        // Act & Assert
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(first));
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(second));
+    }
+
+    @Test
+    void revoke_ShouldRejectRefresh_AfterLogout() {
+        // Arrange
+        String first = refreshTokenService.issue("vinicius.vmtech", 1L);
+        String second = refreshTokenService.rotate(first).refreshToken();
+
+        // Act
+        refreshTokenService.revoke(second, "vinicius.vmtech");
+
+        // Assert
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(second));
+    }
+
+    @Test
+    void revoke_ShouldIgnoreToken_OfAnotherUser() {
+        // Arrange
+        String token = refreshTokenService.issue("vinicius.vmtech", 1L);
+
+        // Act
+        refreshTokenService.revoke(token, "outro.usuario");
+
+        // Assert
+        assertEquals("vinicius.vmtech", refreshTokenService.rotate(token).username());
+    }
+
+    @Test
+    void rotate_ShouldReject_WhenUserEpochChanged() {
+        // Arrange
+        String token = refreshTokenService.issue("vinicius.vmtech", 0L);
+
+        // Act & Assert
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(token));
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("desconhecido"));
+    }
+}
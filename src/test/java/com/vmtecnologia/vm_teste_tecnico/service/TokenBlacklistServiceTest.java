@@ -0,0 +1,121 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.config.JwtConfig;
+import com.vmtecnologia.vm_teste_tecnico.config.JwtKeyRing;
+import com.vmtecnologia.vm_teste_tecnico.config.JwtSigningProperties;
+import com.vmtecnologia.vm_teste_tecnico.config.TokenDigest;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class TokenBlacklistServiceTest {
+
+    private JwtConfig jwtConfig;
+    private TokenRevocationStore revocationStore;
+    private TokenBlacklistService tokenBlacklistService;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        jwtConfig.setSecret("Ab1!Xy9@Lu3#Pq7^ZrLm*Go2$TxQCsaeaefdf");
+        jwtConfig.setExpirationTime(86400000L);
+        revocationStore = mock(TokenRevocationStore.class);
+        tokenBlacklistService = new TokenBlacklistService(
+                new TokenVerificationService(new JwtKeyRing(jwtConfig, new JwtSigningProperties("HS256", null, List.of(), false)), 100), revocationStore, 1000, 0.01, 5000);
+        tokenBlacklistService.init();
+    }
+
+    private String createToken(Instant expiration) {
+        return Jwts.builder()
+                .subject("vinicius.vmtech")
+                .expiration(Date.from(expiration))
+                .signWith(jwtConfig.getSecretKey())
+                .compact();
+    }
+
+    @Test
+    void blacklistToken_ShouldRevokeToken_WhenTokenIsValid() {
+        // Arrange
+        String token = createToken(Instant.now().plusSeconds(300));
+
+        // Act
+        tokenBlacklistService.blacklistToken(token);
+
+        // Assert
+        assertTrue(tokenBlacklistService.isTokenBlacklisted(token));
+        assertTrue(tokenBlacklistService.isTokenBlacklisted(TokenDigest.of(token)));
+        assertFalse(tokenBlacklistService.isTokenBlacklisted(createToken(Instant.now().plusSeconds(301))));
+        verify(revocationStore).save(eq(TokenDigest.of(token)), anyLong());
+        verify(revocationStore, never()).contains(any());
+    }
+
+    @Test
+    void refreshFromStore_ShouldRevokeTokensRevokedOnOtherNodes() {
+        // Arrange
+        TokenDigest remote = TokenDigest.of("revogado-em-outro-no");
+        Instant revokedAt = Instant.now();
+        when(revocationStore.forEachRevokedSince(any(), anyLong(), any())).thenAnswer(invocation -> {
+            invocation.<java.util.function.Consumer<TokenRevocationStore.Revocation>>getArgument(2)
+                    .accept(new TokenRevocationStore.Revocation(remote, System.currentTimeMillis() + 60_000, revokedAt));
+            return revokedAt;
+        });
+
+        // Act
+        tokenBlacklistService.refreshFromStore();
+        tokenBlacklistService.refreshFromStore();
+
+        // Assert
+        assertTrue(tokenBlacklistService.isTokenBlacklisted(remote));
+        verify(revocationStore).forEachRevokedSince(eq(revokedAt.minusMillis(10_000)), anyLong(), any());
+    }
+
+    @Test
+    void isTokenBlacklisted_ShouldQueryStore_WhenNotYetSynced() {
+        // Arrange
+        TokenDigest digest = TokenDigest.of("qualquer");
+        when(revocationStore.forEachRevokedSince(isNull(), anyLong(), any())).thenThrow(new IllegalStateException("banco indisponível"));
+        TokenBlacklistService unsynced = new TokenBlacklistService(
+                new TokenVerificationService(new JwtKeyRing(jwtConfig, new JwtSigningProperties("HS256", null, List.of(), false)), 100), revocationStore, 1000, 0.01, 5000);
+        unsynced.init();
+        when(revocationStore.contains(digest)).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(unsynced.isTokenBlacklisted(digest));
+    }
+
+    @Test
+    void blacklistToken_ShouldIgnoreToken_WhenTokenIsInvalid() {
+        tokenBlacklistService.blacklistToken("token-invalido");
+
+        assertEquals(0, tokenBlacklistService.size());
+    }
+
+    @Test
+    void purgeExpired_ShouldRemoveOnlyExpiredBuckets() {
+        // Arrange
+        long now = System.currentTimeMillis();
+        TokenDigest shortLived = TokenDigest.of("curto");
+        TokenDigest longLived = TokenDigest.of("longo");
+        tokenBlacklistService.revoke(shortLived, now + 1_000);
+        tokenBlacklistService.revoke(longLived, now + 10 * TokenBlacklistService.BUCKET_WIDTH_MILLIS);
+
+        // Act
+        int removed = tokenBlacklistService.purgeExpired(now + 2 * TokenBlacklistService.BUCKET_WIDTH_MILLIS);
+
+        // Assert
+        assertEquals(1, removed);
+        assertFalse(tokenBlacklistService.isTokenBlacklisted(shortLived));
+        assertTrue(tokenBlacklistService.isTokenBlacklisted(longLived));
+    }
+}
@@ -0,0 +1,79 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenEpochServiceTest {
+
+    private UserRepository userRepository;
+    private TokenEpochService tokenEpochService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        tokenEpochService = new TokenEpochService(userRepository, 60_000, 100);
+    }
+
+    private static Claims claims(String username, Long epoch) {
+        var builder = Jwts.claims().subject(username);
+        if (epoch != null) {
+            builder.add(TokenEpochService.CLAIM, epoch);
+        }
+        return builder.build();
+    }
+
+    @Test
+    void isCurrent_ShouldLoadEpochOnceAndCompare() {
+        // Arrange
+        when(userRepository.findTokenVersionByUsername("vinicius.vmtech")).thenReturn(Optional.of(7L));
+
+        // Act & Assert
+        assertTrue(tokenEpochService.isCurrent(claims("vinicius.vmtech", 7L)));
+        assertFalse(tokenEpochService.isCurrent(claims("vinicius.vmtech", 6L)));
+        verify(userRepository, times(1)).findTokenVersionByUsername("vinicius.vmtech");
+    }
+
+    @Test
+    void isCurrent_ShouldTreatMissingClaimAsEpochZero() {
+        when(userRepository.findTokenVersionByUsername("legado")).thenReturn(Optional.of(0L));
+
+        assertTrue(tokenEpochService.isCurrent(claims("legado", null)));
+    }
+
+    @Test
+    void revokeAll_ShouldRejectTokensOfPreviousEpoch() {
+        // Arrange
+        when(userRepository.findTokenVersionByUsername("vinicius.vmtech")).thenReturn(Optional.of(1L), Optional.of(2L));
+        assertTrue(tokenEpochService.isCurrent(claims("vinicius.vmtech", 1L)));
+
+        // Act
+        tokenEpochService.revokeAll("vinicius.vmtech");
+
+        // Assert
+        verify(userRepository).incrementTokenVersion("vinicius.vmtech");
+        assertFalse(tokenEpochService.isCurrent(claims("vinicius.vmtech", 1L)));
+        assertTrue(tokenEpochService.isCurrent(claims("vinicius.vmtech", 2L)));
+    }
+
+    @Test
+    void markDeleted_ShouldRejectEveryToken() {
+        // Arrange
+        when(userRepository.findTokenVersionByUsername("removido")).thenReturn(Optional.of(3L));
+        assertTrue(tokenEpochService.isCurrent(claims("removido", 3L)));
+
+        // Act
+        tokenEpochService.markDeleted("removido");
+
+        // Assert
+        assertFalse(tokenEpochService.isCurrent(claims("removido", 3L)));
+        assertFalse(tokenEpochService.isCurrent(claims("desconhecido", 0L)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.config.JwtConfig;
+import com.vmtecnologia.vm_teste_tecnico.config.JwtKeyRing;
+import com.vmtecnologia.vm_teste_tecnico.config.JwtSigningProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenVerificationServiceTest {
+
+    private JwtConfig jwtConfig;
+    private TokenVerificationService tokenVerificationService;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        jwtConfig.setSecret("Ab1!Xy9@Lu3#Pq7^ZrLm*Go2$TxQCsaeaefdf");
+        jwtConfig.setExpirationTime(86400000L);
+        tokenVerificationService = new TokenVerificationService(new JwtKeyRing(jwtConfig, new JwtSigningProperties("HS256", null, List.of(), false)), 100);
+    }
+
+    private String createToken(String username, Instant expiration) {
+        return Jwts.builder()
+                .subject(username)
+                .issuedAt(new Date())
+                .expiration(Date.from(expiration))
+                .signWith(jwtConfig.getSecretKey())
+                .compact();
+    }
+
+    @Test
+    void verify_ShouldReturnCachedClaims_WhenSameTokenIsVerifiedTwice() {
+        // Arrange
+        String token = createToken("vinicius.vmtech", Instant.now().plusSeconds(60));
+
+        // Act
+        Claims first = tokenVerificationService.verify(token);
+        Claims second = tokenVerificationService.verify(token);
+
+        // Assert
+        assertEquals("vinicius.vmtech", first.getSubject());
+        assertSame(first, second);
+    }
+
+    @Test
+    void verify_ShouldThrow_WhenSignatureIsTampered() {
+        // Arrange
+        String token = createToken("vinicius.vmtech", Instant.now().plusSeconds(60));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> tokenVerificationService.verify(tampered));
+    }
+
+    @Test
+    void verify_ShouldThrow_WhenTokenIsExpired() {
+        // Arrange
+        String token = createToken("vinicius.vmtech", Instant.now().minusSeconds(5));
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> tokenVerificationService.verify(token));
+    }
+}
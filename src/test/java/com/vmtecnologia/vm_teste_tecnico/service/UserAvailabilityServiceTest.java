@@ -0,0 +1,118 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.dto.AvailabilityDTO;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserAvailabilityServiceTest {
+
+    private record Identity(String getUsername, String getEmail, LocalDateTime getUpdatedAt) implements UserRepository.Identity {
+    }
+
+    private static final LocalDateTime LAST_UPDATE = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    private UserRepository userRepository;
+    private UserAvailabilityService userAvailabilityService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.streamIdentities()).thenReturn(Stream.of(
+                new Identity("vinicius", "vinicius@vmtech.com", LAST_UPDATE.minusDays(2)),
+                new Identity("vinicius1", "vinicius1@vmtech.com", LAST_UPDATE),
+                new Identity("vinicius3", "vinicius3@vmtech.com", LAST_UPDATE.minusDays(1))));
+        userAvailabilityService = new UserAvailabilityService(userRepository, 1000, 0.001, 3);
+        userAvailabilityService.rebuild();
+    }
+
+    @Test
+    void check_ShouldAnswerWithoutQuery_WhenBloomFilterIsNegative() {
+        // Act
+        AvailabilityDTO result = userAvailabilityService.check("novo.usuario", "novo@vmtech.com");
+
+        // Assert
+        assertTrue(result.getUsernameAvailable());
+        assertTrue(result.getEmailAvailable());
+        assertNull(result.getSuggestions());
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void check_ShouldConfirmInDatabaseAndSuggestFreeSuffixes_WhenUsernameIsTaken() {
+        // Arrange
+        when(userRepository.existsByUsername("vinicius3")).thenReturn(true);
+        when(userRepository.existsByEmail("VINICIUS@vmtech.com")).thenReturn(false);
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(Set.of("vinicius1"));
+
+        // Act
+        AvailabilityDTO result = userAvailabilityService.check("vinicius3", "VINICIUS@vmtech.com");
+
+        // Assert
+        assertFalse(result.getUsernameAvailable());
+        assertEquals(List.of("vinicius2", "vinicius4", "vinicius5"), result.getSuggestions());
+        assertTrue(result.getEmailAvailable());
+        verify(userRepository).existsByEmail("VINICIUS@vmtech.com");
+        // Só os positivos do filtro de Bloom vão ao banco
+        verify(userRepository).findExistingUsernames(List.of("vinicius1"));
+    }
+
+    @Test
+    void register_ShouldMakeNewUsernamePossiblyTaken() {
+        // Arrange
+        userAvailabilityService.register("recem.criado", "recem@vmtech.com");
+        when(userRepository.existsByUsername("recem.criado")).thenReturn(true);
+
+        // Act & Assert
+        assertFalse(userAvailabilityService.isUsernameAvailable("recem.criado"));
+        verify(userRepository).existsByUsername("recem.criado");
+    }
+
+    @Test
+    void syncRecent_ShouldPickUpRenamedUsers_UsingDatabaseTimestampAsCursor() {
+        // Arrange
+        LocalDateTime renamedAt = LAST_UPDATE.plusMinutes(5);
+        when(userRepository.findIdentitiesUpdatedSince(any()))
+                .thenReturn(List.of(new Identity("vinicius.renomeado", "vinicius@vmtech.com", renamedAt)))
+                .thenReturn(List.of());
+        when(userRepository.existsByUsername("vinicius.renomeado")).thenReturn(true);
+
+        // Act
+        userAvailabilityService.syncRecent();
+        userAvailabilityService.syncRecent();
+
+        // Assert
+        assertFalse(userAvailabilityService.isUsernameAvailable("vinicius.renomeado"));
+        verify(userRepository).findIdentitiesUpdatedSince(LAST_UPDATE.minusMinutes(1));
+        verify(userRepository).findIdentitiesUpdatedSince(renamedAt.minusMinutes(1));
+    }
+
+    @Test
+    void suggestUsernames_ShouldStopAfterBoundedAttempts_WhenEverySuffixIsTaken() {
+        // Arrange
+        for (int suffix = 1; suffix <= 200; suffix++) {
+            userAvailabilityService.register("ana" + suffix, "ana" + suffix + "@vmtech.com");
+        }
+        when(userRepository.findExistingUsernames(anyCollection())).thenAnswer(invocation -> Set.copyOf(invocation.getArgument(0)));
+
+        // Act
+        List<String> suggestions = userAvailabilityService.suggestUsernames("ana");
+
+        // Assert
+        assertTrue(suggestions.isEmpty());
+        verify(userRepository).findExistingUsernames(argThat(candidates -> candidates.size() == 50));
+    }
+}
@@ -0,0 +1,161 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBulkAction;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBulkProgress;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBulkRequest;
+import com.vmtecnologia.vm_teste_tecnico.exception.BusinessException;
+import com.vmtecnologia.vm_teste_tecnico.model.User;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "users.bulk.chunk-size=2")
+@ActiveProfiles("test")
+@Import(UserBulkService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada bloco precisa do próprio commit
+class UserBulkServiceTest {
+
+    @Autowired
+    private UserBulkService userBulkService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private TokenEpochService tokenEpochService;
+
+    @MockitoBean
+    private CustomUserDetailsService userDetailsService;
+
+    @MockitoBean
+    private UserDTOCache userDTOCache;
+
+    @MockitoBean
+    private TaskExecutor taskExecutor;
+
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        users = userRepository.saveAll(List.of(
+                createUser("Ana Lima", "ana", "USER"),
+                createUser("Bruno Lima", "bruno", "USER"),
+                createUser("Carla Lima", "carla", "ADMIN"),
+                createUser("Davi Souza", "davi", "USER")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    private User createUser(String name, String username, String role) {
+        return User.builder()
+                .name(name)
+                .username(username)
+                .email(username + "@vmtech.com")
+                .password("$2a$10$hash")
+                .role(role)
+                .build();
+    }
+
+    private List<UserBulkProgress> execute(UserBulkRequest request) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        userBulkService.execute(request, output);
+        return Arrays.stream(output.toString(StandardCharsets.UTF_8).split("\n"))
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, UserBulkProgress.class);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    @Test
+    void execute_ShouldChangeRoleInChunksAndRevokeTokens_WhenFilteredByName() throws Exception {
+        // Arrange
+        long anaTokenVersion = users.get(0).getTokenVersion();
+        UserBulkRequest request = UserBulkRequest.builder()
+                .action(UserBulkAction.CHANGE_ROLE)
+                .nameContains("lima")
+                .newRole("ADMIN")
+                .notifyUsers(true)
+                .build();
+
+        // Act
+        List<UserBulkProgress> progress = execute(request);
+
+        // Assert
+        assertEquals(List.of("RUNNING", "RUNNING", "DONE"), progress.stream().map(UserBulkProgress::status).toList());
+        assertEquals(2, progress.get(2).totalAffected());
+        User ana = userRepository.findByUsername("ana").orElseThrow();
+        assertEquals("ADMIN", ana.getRole());
+        assertEquals(anaTokenVersion + 1, ana.getTokenVersion());
+        assertEquals("USER", userRepository.findByUsername("davi").orElseThrow().getRole());
+        verify(tokenEpochService).evict("carla");
+        verify(tokenEpochService, never()).evict("davi");
+        verify(userDTOCache).invalidate(ana.getId());
+        verify(taskExecutor, times(1)).execute(any());
+    }
+
+    @Test
+    void execute_ShouldDeleteOnlyListedIds_WithoutNotification() throws Exception {
+        // Arrange
+        UserBulkRequest request = UserBulkRequest.builder()
+                .action(UserBulkAction.DELETE)
+                .ids(List.of(users.get(1).getId(), users.get(3).getId()))
+                .build();
+
+        // Act
+        List<UserBulkProgress> progress = execute(request);
+
+        // Assert
+        assertEquals("DONE", progress.get(progress.size() - 1).status());
+        assertEquals(2, progress.get(progress.size() - 1).totalAffected());
+        assertEquals(2, userRepository.count());
+        assertTrue(userRepository.findByUsername("bruno").isEmpty());
+        verify(tokenEpochService).markDeleted("bruno");
+        verify(tokenEpochService).markDeleted("davi");
+        verifyNoInteractions(taskExecutor);
+    }
+
+    @Test
+    void validate_ShouldThrowBusinessException_WhenNoFilterIsGiven() {
+        // Arrange
+        UserBulkRequest request = UserBulkRequest.builder().action(UserBulkAction.DELETE).build();
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> userBulkService.validate(request));
+        assertEquals(4, userRepository.count());
+    }
+}
@@ -0,0 +1,87 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserCacheSyncTest {
+
+    private static final LocalDateTime STARTED = LocalDateTime.of(2025, 6, 1, 10, 0);
+
+    private record Change(Long getId, String getUsername, LocalDateTime getUpdatedAt) implements UserRepository.Change {
+    }
+
+    private UserRepository userRepository;
+    private UserDTOCache userDTOCache;
+    private CustomUserDetailsService userDetailsService;
+    private UserCacheSync userCacheSync;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userDTOCache = mock(UserDTOCache.class);
+        userDetailsService = mock(CustomUserDetailsService.class);
+        when(userRepository.findLatestUpdate()).thenReturn(Optional.of(STARTED));
+        userCacheSync = new UserCacheSync(userRepository, userDTOCache, userDetailsService);
+        userCacheSync.init();
+    }
+
+    @Test
+    void syncRecent_ShouldEvictUsersChangedOnOtherNodes_AndAdvanceDatabaseCursor() {
+        // Arrange
+        LocalDateTime changedAt = STARTED.plusSeconds(5);
+        when(userRepository.findChangesSince(any()))
+                .thenReturn(List.of(new Change(7L, "vinicius", changedAt)))
+                .thenReturn(List.of());
+
+        // Act
+        userCacheSync.syncRecent();
+        userCacheSync.syncRecent();
+
+        // Assert
+        verify(userDTOCache).invalidate(7L);
+        verify(userDetailsService).evict("vinicius");
+        verify(userRepository).findChangesSince(STARTED.minusMinutes(1));
+        verify(userRepository).findChangesSince(changedAt.minusMinutes(1));
+    }
+
+    @Test
+    void syncRecent_ShouldNotEvictAgain_WhenSameChangeIsReadWithinOverlap() {
+        // Arrange
+        LocalDateTime changedAt = STARTED.plusSeconds(5);
+        LocalDateTime changedAgainAt = STARTED.plusSeconds(8);
+        when(userRepository.findChangesSince(any()))
+                .thenReturn(List.of(new Change(7L, "vinicius", changedAt)))
+                .thenReturn(List.of(new Change(7L, "vinicius", changedAt)))
+                .thenReturn(List.of(new Change(7L, "vinicius", changedAgainAt)));
+
+        // Act
+        userCacheSync.syncRecent();
+        userCacheSync.syncRecent();
+        userCacheSync.syncRecent();
+
+        // Assert
+        verify(userDTOCache, times(2)).invalidate(7L);
+        verify(userDetailsService, times(2)).evict("vinicius");
+    }
+
+    @Test
+    void syncRecent_ShouldDoNothing_BeforeApplicationIsReady() {
+        // Arrange
+        UserCacheSync notStarted = new UserCacheSync(userRepository, userDTOCache, userDetailsService);
+
+        // Act
+        notStarted.syncRecent();
+
+        // Assert
+        verify(userRepository, never()).findChangesSince(any());
+        verifyNoInteractions(userDTOCache, userDetailsService);
+    }
+}
@@ -0,0 +1,155 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.config.ConnectionBulkhead;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDTOCacheTest {
+
+    private final UserDTOCache userDTOCache = new UserDTOCache(60_000, 100);
+
+    @Test
+    void get_ShouldLoadOnceUntilInvalidated() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        UserDTO user = UserDTO.builder().id(1L).name("Vinicius Vmtech").build();
+
+        // Act
+        userDTOCache.get(1L, id -> { loads.incrementAndGet(); return user; });
+        UserDTO cached = userDTOCache.get(1L, id -> { loads.incrementAndGet(); return user; });
+        userDTOCache.invalidate(1L);
+        userDTOCache.get(1L, id -> { loads.incrementAndGet(); return user; });
+
+        // Assert
+        assertSame(user, cached);
+        assertEquals(2, loads.get());
+        assertEquals(1, userDTOCache.stats().hitCount());
+        assertEquals(2, userDTOCache.stats().missCount());
+    }
+
+    @Test
+    void get_ShouldNotCacheMissingUser() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        userDTOCache.get(99L, id -> { loads.incrementAndGet(); return null; });
+        UserDTO result = userDTOCache.get(99L, id -> { loads.incrementAndGet(); return null; });
+
+        // Assert
+        assertNull(result);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getAll_ShouldLoadOnlyMissingIdsInOneCall() {
+        // Arrange
+        UserDTO cached = UserDTO.builder().id(1L).name("Em cache").build();
+        userDTOCache.get(1L, id -> cached);
+        List<Set<? extends Long>> loads = new ArrayList<>();
+
+        // Act
+        Map<Long, UserDTO> result = userDTOCache.getAll(List.of(1L, 2L, 3L), missing -> {
+            loads.add(Set.copyOf(missing));
+            return Map.of(2L, UserDTO.builder().id(2L).name("Do banco").build());
+        });
+
+        // Assert
+        assertEquals(List.of(Set.of(2L, 3L)), loads);
+        assertSame(cached, result.get(1L));
+        assertEquals("Do banco", result.get(2L).getName());
+        assertFalse(result.containsKey(3L));
+    }
+
+    @Test
+    void getAll_ShouldNotCacheLoadedValue_WhenInvalidatedDuringLoad() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        UserDTO stale = UserDTO.builder().id(1L).name("Antes do commit").build();
+        UserDTO fresh = UserDTO.builder().id(1L).name("Depois do commit").build();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Act
+            Future<Map<Long, UserDTO>> inFlight = executor.submit(() -> userDTOCache.getAll(List.of(1L), missing -> {
+                loading.countDown();
+                try {
+                    invalidated.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Map.of(1L, stale);
+            }));
+            loading.await();
+            userDTOCache.invalidate(1L);
+            invalidated.countDown();
+            inFlight.get(5, TimeUnit.SECONDS);
+            UserDTO next = userDTOCache.get(1L, id -> fresh);
+
+            // Assert
+            assertSame(fresh, next);
+        }
+    }
+
+    @Test
+    void get_ShouldNotPinCarrierThreads_WhileLoadersWaitForBulkhead() throws Exception {
+        // Arrange
+        ConnectionBulkhead bulkhead = new ConnectionBulkhead(
+                new DriverManagerDataSource("jdbc:h2:mem:dto-cache;DB_CLOSE_DELAY=-1", "sa", ""), 1, Duration.ofSeconds(15));
+        Function<Long, UserDTO> loader = id -> {
+            try (Connection connection = bulkhead.getConnection()) {
+                return UserDTO.builder().id(id).build();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        // Mais chamadas do que threads portadoras: se as cargas prendessem a portadora, sobraria nenhuma
+        int callers = Runtime.getRuntime().availableProcessors() * 4;
+        Connection held = bulkhead.getConnection();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Act
+            List<Future<UserDTO>> results = new ArrayList<>();
+            for (long id = 1; id <= callers; id++) {
+                long key = id;
+                results.add(executor.submit(() -> userDTOCache.get(key, loader)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (bulkhead.getQueueDepth() < callers && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            int queued = bulkhead.getQueueDepth();
+            // A licença é devolvida por outra thread virtual, que precisa de uma portadora livre
+            Future<?> release = executor.submit(() -> {
+                held.close();
+                return null;
+            });
+
+            // Assert
+            assertEquals(callers, queued);
+            release.get(5, TimeUnit.SECONDS);
+            for (int i = 0; i < callers; i++) {
+                assertEquals(i + 1L, results.get(i).get(5, TimeUnit.SECONDS).getId());
+            }
+        }
+        assertEquals(callers + 1, bulkhead.getAcquisitions());
+    }
+}
@@ -0,0 +1,79 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.dto.UserFileFormat;
+import com.vmtecnologia.vm_teste_tecnico.model.User;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(UserExportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class UserExportServiceTest {
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private void save(String name, String username) {
+        userRepository.save(User.builder()
+                .name(name)
+                .username(username)
+                .email(username + "@vmtech.com")
+                .password("$2a$10$hash")
+                .role("USER")
+                .build());
+    }
+
+    @BeforeEach
+    void setUp() {
+        save("Vinicius Malmann", "vinicius");
+        save("Silva, Maria \"Mari\"", "maria");
+    }
+
+    @Test
+    void exportUsers_ShouldWriteEscapedCsvWithHeader() throws Exception {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long count = userExportService.exportUsers(UserFileFormat.CSV, output);
+
+        // Assert
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, count);
+        assertEquals(UserExportService.CSV_HEADER, lines.get(0));
+        assertTrue(lines.get(1).contains(",Vinicius Malmann,vinicius,vinicius@vmtech.com,"));
+        assertTrue(lines.get(2).contains(",\"Silva, Maria \"\"Mari\"\"\",maria,"));
+    }
+
+    @Test
+    void exportUsers_ShouldWriteOneJsonObjectPerLineWithoutPassword() throws Exception {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        userExportService.exportUsers(UserFileFormat.NDJSON, output);
+
+        // Assert
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{") && lines.get(0).contains("\"username\":\"vinicius\""));
+        assertFalse(output.toString(StandardCharsets.UTF_8).contains("password"));
+    }
+}
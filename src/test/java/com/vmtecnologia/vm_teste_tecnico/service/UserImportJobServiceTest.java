@@ -0,0 +1,119 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.vmtecnologia.vm_teste_tecnico.dto.UserFileFormat;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserImportJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UserImportJobServiceTest {
+
+    private UserImportService userImportService;
+    private List<Runnable> scheduled;
+    private UserImportJobService userImportJobService;
+
+    @BeforeEach
+    void setUp() {
+        userImportService = mock(UserImportService.class);
+        scheduled = new ArrayList<>();
+        TaskExecutor taskExecutor = scheduled::add;
+        userImportJobService = new UserImportJobService(userImportService, taskExecutor, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportJobService.shutdown();
+    }
+
+    private static InputStream upload(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void start_ShouldReturnRunningJob_BeforeImportRuns() throws IOException {
+        // Act
+        UserImportJob job = userImportJobService.start(upload("{}\n"), UserFileFormat.NDJSON, false);
+
+        // Assert
+        assertEquals("RUNNING", job.status());
+        assertEquals(1, scheduled.size());
+        assertEquals(job, userImportJobService.find(job.id()).orElseThrow());
+        assertTrue(userImportJobService.results(job.id()).isEmpty());
+        verifyNoInteractions(userImportService);
+    }
+
+    @Test
+    void start_ShouldExposeProgressAndResults_WhenImportFinishes() throws IOException {
+        // Arrange
+        doAnswer(invocation -> {
+            InputStream input = invocation.getArgument(0);
+            OutputStream output = invocation.getArgument(3);
+            UserImportService.Progress progress = invocation.getArgument(4);
+            assertEquals("linha 1\nlinha 2\n", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+            output.write("{\"line\":1,\"status\":\"CREATED\"}\n".getBytes(StandardCharsets.UTF_8));
+            progress.update(1, 1);
+            return null;
+        }).when(userImportService).importUsers(any(), eq(UserFileFormat.CSV), eq(true), any(), any());
+        UserImportJob job = userImportJobService.start(upload("linha 1\nlinha 2\n"), UserFileFormat.CSV, true);
+
+        // Act
+        scheduled.getFirst().run();
+
+        // Assert
+        UserImportJob finished = userImportJobService.find(job.id()).orElseThrow();
+        assertEquals("DONE", finished.status());
+        assertEquals(1, finished.created());
+        assertEquals(1, finished.failed());
+        assertNotNull(finished.finishedAt());
+        Path results = userImportJobService.results(job.id()).orElseThrow();
+        assertEquals("{\"line\":1,\"status\":\"CREATED\"}\n", Files.readString(results));
+    }
+
+    @Test
+    void start_ShouldMarkJobAsFailed_WhenImportThrows() throws IOException {
+        // Arrange
+        doThrow(new IOException("disco cheio"))
+                .when(userImportService).importUsers(any(), any(), anyBoolean(), any(), any());
+        UserImportJob job = userImportJobService.start(upload("{}\n"), UserFileFormat.NDJSON, false);
+
+        // Act
+        scheduled.getFirst().run();
+
+        // Assert
+        UserImportJob failed = userImportJobService.find(job.id()).orElseThrow();
+        assertEquals("FAILED", failed.status());
+        assertEquals("disco cheio", failed.error());
+        assertTrue(userImportJobService.results(job.id()).isPresent());
+    }
+
+    @Test
+    void shutdown_ShouldDeleteTemporaryFiles_OfRetainedJobs() throws IOException {
+        // Arrange
+        UserImportJob job = userImportJobService.start(upload("{}\n"), UserFileFormat.NDJSON, false);
+        scheduled.getFirst().run();
+        Path results = userImportJobService.results(job.id()).orElseThrow();
+
+        // Act
+        userImportJobService.shutdown();
+
+        // Assert
+        assertFalse(Files.exists(results));
+        assertTrue(userImportJobService.find(job.id()).isEmpty());
+    }
+}
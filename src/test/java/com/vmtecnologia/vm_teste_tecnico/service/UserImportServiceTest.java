@@ -0,0 +1,149 @@
+package com.vmtecnologia.vm_teste_tecnico.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserFileFormat;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserImportResult;
+import com.vmtecnologia.vm_teste_tecnico.model.User;
+import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "users.import.chunk-size=2")
+@ActiveProfiles("test")
+@Import(UserImportService.class)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada bloco precisa do próprio commit
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean(name = "importPasswordEncoder")
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private CustomUserDetailsService userDetailsService;
+
+    @MockitoBean
+    private TokenEpochService tokenEpochService;
+
+    @MockitoBean
+    private UserAvailabilityService userAvailabilityService;
+
+    @MockitoBean
+    private TaskExecutor taskExecutor;
+
+    @BeforeEach
+    void setUp() {
+        when(passwordEncoder.encode(any())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        userRepository.save(User.builder()
+                .name("Existente")
+                .username("existente")
+                .email("existente@vmtech.com")
+                .password("$2a$10$hash")
+                .role("USER")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    private List<UserImportResult> importUsers(String content, UserFileFormat format, boolean sendWelcomeEmail)
+            throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        userImportService.importUsers(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                format, sendWelcomeEmail, output);
+        return Arrays.stream(output.toString(StandardCharsets.UTF_8).split("\n"))
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, UserImportResult.class);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    @Test
+    void importUsers_ShouldReportEachLine_WhenNdjsonMixesValidAndInvalidRows() throws Exception {
+        // Arrange
+        String ndjson = """
+                {"name":"Ana","username":"ana","email":"ana@vmtech.com","password":"senha123"}
+                {"name":"Bruno","username":"bruno","email":"existente@vmtech.com","password":"senha123"}
+                {"name":"Carla","username":"carla","email":"carla@vmtech.com","password":"123"}
+                nao-e-json
+                {"name":"Davi","username":"davi","email":"davi@vmtech.com","password":"senha123","role":"ADMIN"}
+                """;
+
+        // Act
+        List<UserImportResult> results = importUsers(ndjson, UserFileFormat.NDJSON, false);
+
+        // Assert
+        assertEquals(List.of("CREATED", "FAILED", "FAILED", "FAILED", "CREATED"),
+                results.stream().map(UserImportResult::status).toList());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), results.stream().map(UserImportResult::line).toList());
+        User davi = userRepository.findByUsername("davi").orElseThrow();
+        assertEquals(davi.getId(), results.get(4).id());
+        assertEquals("hash:senha123", davi.getPassword());
+        assertEquals("ADMIN", davi.getRole());
+        assertEquals("USER", userRepository.findByUsername("ana").orElseThrow().getRole());
+        verify(userDetailsService).evict("ana");
+        verify(tokenEpochService).evict("ana");
+        verify(userAvailabilityService).register("ana", "ana@vmtech.com");
+        verifyNoInteractions(taskExecutor);
+    }
+
+    @Test
+    void importUsers_ShouldParseQuotedCsvAndRejectDuplicatesInFile() throws Exception {
+        // Arrange
+        String csv = """
+                username,name,email,password
+                silva,"Silva, Maria ""Mari\""",silva@vmtech.com,senha123
+                silva,Outro Silva,outro@vmtech.com,senha123
+                """;
+
+        // Act
+        List<UserImportResult> results = importUsers(csv, UserFileFormat.CSV, true);
+
+        // Assert
+        assertEquals("CREATED", results.get(0).status());
+        assertEquals(2, results.get(0).line());
+        assertEquals("FAILED", results.get(1).status());
+        assertEquals("Silva, Maria \"Mari\"", userRepository.findByUsername("silva").orElseThrow().getName());
+        verify(taskExecutor).execute(any());
+    }
+}
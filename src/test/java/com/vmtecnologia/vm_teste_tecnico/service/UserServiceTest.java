@@ -1,13 +1,20 @@
 package com.vmtecnologia.vm_teste_tecnico.service;
 
+import com.vmtecnologia.vm_teste_tecnico.config.RoleAuthorities;
 import com.vmtecnologia.vm_teste_tecnico.dto.CreateUserDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.PatchUserDTO;
 import com.vmtecnologia.vm_teste_tecnico.dto.UpdateUserDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserBatchDTO;
 import com.vmtecnologia.vm_teste_tecnico.dto.UserDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserSliceDTO;
+import com.vmtecnologia.vm_teste_tecnico.dto.UserSortField;
 import com.vmtecnologia.vm_teste_tecnico.exception.BusinessException;
 import com.vmtecnologia.vm_teste_tecnico.exception.EmailSendingException;
+import com.vmtecnologia.vm_teste_tecnico.exception.PreconditionFailedException;
 import com.vmtecnologia.vm_teste_tecnico.model.User;
 import com.vmtecnologia.vm_teste_tecnico.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -17,14 +24,27 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,9 +59,31 @@ class UserServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private TokenEpochService tokenEpochService;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private UserDTOCache userDTOCache;
+
+    @Mock
+    private UserAvailabilityService userAvailabilityService;
+
     @InjectMocks
     private UserService userService;
 
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void authenticateAs(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, RoleAuthorities.of(role)));
+    }
+
     // Método auxiliar para criar User de teste
     private User createTestUser(Long id, String name, String username, String email, String password, String role) {
         return User.builder()
@@ -55,6 +97,13 @@ class UserServiceTest {
                 .build();
     }
 
+    // O cache mockado delega ao loader, como numa falha de cache
+    @SuppressWarnings("unchecked")
+    private void readThroughCache() {
+        when(userDTOCache.get(anyLong(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(1, Function.class).apply(invocation.getArgument(0)));
+    }
+
     // Método auxiliar para criar CreateUserDTO de teste
     private CreateUserDTO createTestUserDTO(String name, String username, String email, String password, String role) {
         return CreateUserDTO.builder()
@@ -96,6 +145,24 @@ class UserServiceTest {
         verify(emailService).sendEmail(anyString(), anyString(), anyString());
     }
 
+    @Test
+    void createUser_ShouldEvictTokenEpoch_WhenUsernameBelongedToDeletedAccount() {
+        // Arrange
+        CreateUserDTO dto = createTestUserDTO("Vinicius Vmtech", "vinicius.vmtech", "viniciusvm@email.com", "Senha@123", "USER");
+        User savedUser = createTestUser(1L, "Vinicius Vmtech", "vinicius.vmtech", "viniciusvm@email.com", "encodedPassword", "USER");
+
+        when(userRepository.existsByEmail("viniciusvm@email.com")).thenReturn(false);
+        when(passwordEncoder.encode("Senha@123")).thenReturn("encodedPassword");
+        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+
+        // Act
+        userService.createUser(dto);
+
+        // Assert
+        verify(tokenEpochService).evict("vinicius.vmtech");
+        verify(userDetailsService).evict("vinicius.vmtech");
+    }
+
     @Test
     void createUser_ShouldThrow_WhenEmailAlreadyExists() {
         // Arrange
@@ -138,6 +205,7 @@ class UserServiceTest {
         existingUser.setEmail("antigo@email.com");
         existingUser.setPassword("senhaAntiga");
         existingUser.setRole("USER");
+        authenticateAs("admin", "ADMIN");
 
         // Configura os mocks
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
@@ -204,6 +272,193 @@ class UserServiceTest {
                 () -> userService.updateUser(userId, dto));
     }
 
+    @Test
+    void updateUser_ShouldThrowPreconditionFailed_WhenIfMatchVersionIsStale() {
+        // Arrange
+        Long userId = 1L;
+        UpdateUserDTO dto = createTestUpdateDTO("Vinicius", "viniciusvm@email.com", null, null);
+        User existingUser = createTestUser(userId, "Vinicius", "vinicius.vmtech", "viniciusvm@email.com", "encoded", "USER");
+        existingUser.setVersion(3);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> userService.updateUser(userId, dto, 2L));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void updateUser_ShouldThrowAccessDenied_WhenNonAdminChangesRole() {
+        // Arrange
+        Long userId = 1L;
+        UpdateUserDTO dto = createTestUpdateDTO("Vinicius", "viniciusvm@email.com", null, "ADMIN");
+        User existingUser = createTestUser(userId, "Vinicius", "vinicius.vmtech", "viniciusvm@email.com", "encoded", "USER");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        authenticateAs("vinicius.vmtech", "USER");
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> userService.updateUser(userId, dto));
+        assertEquals("USER", existingUser.getRole());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void updateUser_ShouldKeepRole_WhenNonAdminResendsCurrentRole() {
+        // Arrange
+        Long userId = 1L;
+        UpdateUserDTO dto = createTestUpdateDTO("Nome Novo", "viniciusvm@email.com", null, "USER");
+        User existingUser = createTestUser(userId, "Vinicius", "vinicius.vmtech", "viniciusvm@email.com", "encoded", "USER");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        authenticateAs("vinicius.vmtech", "USER");
+
+        // Act
+        UserDTO result = userService.updateUser(userId, dto);
+
+        // Assert
+        assertEquals("Nome Novo", result.getName());
+        assertEquals("USER", result.getRole());
+    }
+
+    @Test
+    void updateUser_ShouldThrowBusinessException_WhenRoleIsInvalid() {
+        // Arrange
+        UpdateUserDTO dto = createTestUpdateDTO("Vinicius", "viniciusvm@email.com", null, "admin");
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () -> userService.updateUser(1L, dto));
+        assertEquals("Perfil inválido: admin", exception.getMessage());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findByIds_ShouldKeepRequestOrderAndReportMissingIds() {
+        // Arrange
+        User first = createTestUser(1L, "Vinicius", "vinicius.vmtech", "viniciusvm@email.com", "encoded", "USER");
+        User third = createTestUser(3L, "Maria", "maria.vmtech", "maria@email.com", "encoded", "USER");
+        when(userDTOCache.getAll(any(), any())).thenAnswer(invocation -> invocation
+                .getArgument(1, Function.class)
+                .apply(Set.copyOf(invocation.getArgument(0, Collection.class))));
+        when(userRepository.findAllDTOByIdIn(any()))
+                .thenReturn(List.of(userService.convertToDTO(first), userService.convertToDTO(third)));
+
+        // Act
+        UserBatchDTO result = userService.findByIds(List.of(3L, 2L, 1L, 3L));
+
+        // Assert
+        assertEquals(List.of(3L, 1L), result.getUsers().stream().map(UserDTO::getId).toList());
+        assertEquals(List.of(2L), result.getMissingIds());
+        verify(userRepository).findAllDTOByIdIn(Set.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void patchUser_ShouldOnlyChangeSentFields_WhenPatchHasOnlyName() {
+        // Arrange
+        Long userId = 1L;
+        PatchUserDTO patch = new PatchUserDTO();
+        patch.setName("Nome Novo");
+        User existingUser = createTestUser(userId, "Vinicius", "vinicius.vmtech", "viniciusvm@email.com", "encoded", "USER");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        UserDTO result = userService.patchUser(userId, patch, null);
+
+        // Assert
+        assertEquals("Nome Novo", result.getName());
+        assertEquals("viniciusvm@email.com", result.getEmail());
+        assertEquals("encoded", existingUser.getPassword());
+        verify(userRepository, never()).existsByEmail(any());
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void patchUser_ShouldValidateEmailAndRehash_WhenBothAreSent() {
+        // Arrange
+        Long userId = 1L;
+        PatchUserDTO patch = new PatchUserDTO();
+        patch.setEmail("novo@email.com");
+        patch.setPassword("novaSenha");
+        User existingUser = createTestUser(userId, "Vinicius", "vinicius.vmtech", "viniciusvm@email.com", "encoded", "USER");
+        long tokenVersion = existingUser.getTokenVersion();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        when(userRepository.existsByEmail("novo@email.com")).thenReturn(false);
+        when(passwordEncoder.encode("novaSenha")).thenReturn("senhaCriptografada");
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        UserDTO result = userService.patchUser(userId, patch, null);
+
+        // Assert
+        assertEquals("novo@email.com", result.getEmail());
+        assertEquals("senhaCriptografada", existingUser.getPassword());
+        assertEquals(tokenVersion + 1, existingUser.getTokenVersion());
+        verify(userDTOCache).invalidate(userId);
+    }
+
+    @Test
+    void patchUser_ShouldThrowBusinessException_WhenRequiredFieldIsSentAsNull() {
+        // Arrange
+        PatchUserDTO patch = new PatchUserDTO();
+        patch.setEmail(null);
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () -> userService.patchUser(1L, patch, null));
+        assertEquals("O campo email não pode ser removido nem ficar vazio", exception.getMessage());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void patchUser_ShouldThrowAccessDenied_WhenNonAdminChangesRole() {
+        // Arrange
+        Long userId = 1L;
+        PatchUserDTO patch = new PatchUserDTO();
+        patch.setRole("ADMIN");
+        User existingUser = createTestUser(userId, "Vinicius", "vinicius.vmtech", "viniciusvm@email.com", "encoded", "USER");
+        long tokenVersion = existingUser.getTokenVersion();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        authenticateAs("vinicius.vmtech", "USER");
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> userService.patchUser(userId, patch, null));
+        assertEquals("USER", existingUser.getRole());
+        assertEquals(tokenVersion, existingUser.getTokenVersion());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void patchUser_ShouldChangeRoleAndBumpTokenVersion_WhenCallerIsAdmin() {
+        // Arrange
+        Long userId = 1L;
+        PatchUserDTO patch = new PatchUserDTO();
+        patch.setRole("ADMIN");
+        User existingUser = createTestUser(userId, "Vinicius", "vinicius.vmtech", "viniciusvm@email.com", "encoded", "USER");
+        long tokenVersion = existingUser.getTokenVersion();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        authenticateAs("admin", "ADMIN");
+
+        // Act
+        UserDTO result = userService.patchUser(userId, patch, null);
+
+        // Assert
+        assertEquals("ADMIN", result.getRole());
+        assertEquals(tokenVersion + 1, existingUser.getTokenVersion());
+    }
+
+    @Test
+    void patchUser_ShouldThrowBusinessException_WhenRoleIsInvalid() {
+        // Arrange
+        PatchUserDTO patch = new PatchUserDTO();
+        patch.setRole("ROOT");
+        authenticateAs("admin", "ADMIN");
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () -> userService.patchUser(1L, patch, null));
+        assertEquals("Perfil inválido: ROOT", exception.getMessage());
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void usersList_ShouldReturnFilteredUsers_WhenNameFilterProvided() {
         // Arrange
@@ -212,7 +467,7 @@ class UserServiceTest {
         List<User> users = List.of(
                 createTestUser(1L, "Vinicius Vmtech", "vinicius.vmtech", "viniciusvm@email.com", "encoded", "USER")
         );
-        Page<User> page = new PageImpl<>(users);
+        Page<UserDTO> page = new PageImpl<>(users.stream().map(userService::convertToDTO).toList());
 
         when(userRepository.findByNameContainingIgnoreCase(filter, pageable)).thenReturn(page);
 
@@ -232,9 +487,9 @@ class UserServiceTest {
                 createTestUser(1L, "Vinicius Vmtech", "vinicius.vmtech", "viniciusvm@email.com", "encoded", "USER"),
                 createTestUser(2L, "Jane Vmtech", "jane.doe", "jane@email.com", "encoded", "USER")
         );
-        Page<User> page = new PageImpl<>(users);
+        Page<UserDTO> page = new PageImpl<>(users.stream().map(userService::convertToDTO).toList());
 
-        when(userRepository.findAll(pageable)).thenReturn(page);
+        when(userRepository.findAllDTO(pageable)).thenReturn(page);
 
         // Act
         Page<UserDTO> result = userService.usersList(null, pageable);
@@ -243,12 +498,45 @@ class UserServiceTest {
         assertEquals(2, result.getTotalElements());
     }
 
+    @Test
+    void usersScroll_ShouldContinueFromCursorKey_WhenCursorProvided() {
+        // Arrange
+        User first = createTestUser(1L, "Ana Vmtech", "ana.vmtech", "ana@email.com", "encoded", "USER");
+        User second = createTestUser(2L, "Bruno Vmtech", "bruno.vmtech", "bruno@email.com", "encoded", "USER");
+        Sort sort = Sort.by("name").and(Sort.by("id"));
+        when(userRepository.scrollByName(isNull(), eq(sort), eq(1), eq(ScrollPosition.keyset())))
+                .thenReturn(Window.from(List.of(userService.convertToDTO(first)), i -> ScrollPosition.keyset(), true));
+        when(userRepository.scrollByName(isNull(), eq(sort), eq(1),
+                eq(ScrollPosition.forward(Map.of("name", "Ana Vmtech", "id", 1L)))))
+                .thenReturn(Window.from(List.of(userService.convertToDTO(second)), i -> ScrollPosition.keyset(), false));
+
+        // Act
+        UserSliceDTO firstSlice = userService.usersScroll(null, UserSortField.NAME, Sort.Direction.ASC, null, 1);
+        UserSliceDTO secondSlice = userService.usersScroll(null, UserSortField.ID, Sort.Direction.DESC,
+                firstSlice.getNextCursor(), 1);
+
+        // Assert
+        assertTrue(firstSlice.isHasNext());
+        assertEquals("Bruno Vmtech", secondSlice.getContent().get(0).getName());
+        assertFalse(secondSlice.isHasNext());
+        assertNull(secondSlice.getNextCursor());
+    }
+
+    @Test
+    void usersScroll_ShouldThrowBusinessException_WhenCursorIsTampered() {
+        // Act & Assert
+        assertThrows(BusinessException.class,
+                () -> userService.usersScroll(null, UserSortField.NAME, Sort.Direction.ASC, "nao-e-um-cursor", 10));
+        verifyNoInteractions(userRepository);
+    }
+
     @Test
     void findById_ShouldReturnUser_WhenExists() {
         // Arrange
         Long userId = 1L;
         User user = createTestUser(userId, "Vinicius Vmtech", "vinicius.vmtech", "viniciusvm@email.com", "encoded", "USER");
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.findDTOById(userId)).thenReturn(Optional.of(userService.convertToDTO(user)));
+        readThroughCache();
 
         // Act
         UserDTO result = userService.findById(userId);
@@ -262,7 +550,8 @@ class UserServiceTest {
     void findById_ShouldThrow_WhenUserNotFound() {
         // Arrange
         Long userId = 99L;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.findDTOById(userId)).thenReturn(Optional.empty());
+        readThroughCache();
 
         // Act & Assert
         assertThrows(EntityNotFoundException.class,
@@ -281,6 +570,7 @@ class UserServiceTest {
 
         // Assert
         verify(userRepository).delete(user);
+        verify(userDTOCache).invalidate(userId);
         verify(emailService).sendEmail(anyString(), anyString(), anyString());
     }
 
@@ -311,6 +601,7 @@ class UserServiceTest {
         // Assert
         assertEquals(user.getId(), dto.getId());
         assertEquals(user.getName(), dto.getName());
+        assertEquals(user.getUsername(), dto.getUsername());
         assertEquals(user.getEmail(), dto.getEmail());
         assertEquals(user.getRole(), dto.getRole());
         assertEquals(user.getCreatedAt(), dto.getCreatedAt());
@@ -0,0 +1,37 @@
+package com.vmtecnologia.vm_teste_tecnico.util;
+
+import com.vmtecnologia.vm_teste_tecnico.dto.UserDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    private static UserDTO user(long id, long version) {
+        return UserDTO.builder().id(id).name("Usuário " + id).version(version).build();
+    }
+
+    @Test
+    void of_ShouldChangePageETag_WhenAnyVersionChanges() {
+        // Arrange
+        List<UserDTO> page = List.of(user(1, 0), user(2, 5));
+        List<UserDTO> samePage = List.of(user(1, 0), user(2, 5));
+        List<UserDTO> updatedPage = List.of(user(1, 0), user(2, 6));
+
+        // Act & Assert
+        assertEquals(ETags.of(page, 2L), ETags.of(samePage, 2L));
+        assertNotEquals(ETags.of(page, 2L), ETags.of(updatedPage, 2L));
+        assertNotEquals(ETags.of(page, 2L), ETags.of(page, 3L));
+    }
+
+    @Test
+    void parseVersion_ShouldReadQuotedAndWeakETags() {
+        assertEquals(7L, ETags.parseVersion(ETags.of(user(1, 7))));
+        assertEquals(7L, ETags.parseVersion("W/\"7\""));
+        assertNull(ETags.parseVersion("*"));
+        assertNull(ETags.parseVersion(null));
+        assertEquals(-1L, ETags.parseVersion("\"abc\""));
+    }
+}
@@ -0,0 +1,80 @@
+package com.vmtecnologia.vm_teste_tecnico.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedThrottleTest {
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenAskToWait() {
+        // Arrange: 6 por minuto (uma a cada 10 s) com rajada de 3
+        StripedThrottle throttle = new StripedThrottle(1024, 6, 3, 100, 1_000, 60_000);
+        long now = 1_000_000;
+
+        // Act & Assert
+        assertEquals(0, throttle.tryAcquire("vinicius.vmtech", now));
+        assertEquals(0, throttle.tryAcquire("vinicius.vmtech", now));
+        assertEquals(0, throttle.tryAcquire("vinicius.vmtech", now));
+        assertEquals(10_000, throttle.tryAcquire("vinicius.vmtech", now));
+        assertEquals(0, throttle.tryAcquire("outro.usuario", now));
+        assertEquals(0, throttle.tryAcquire("vinicius.vmtech", now + 10_000));
+    }
+
+    @Test
+    void recordFailure_ShouldLockOutExponentially() {
+        // Arrange
+        StripedThrottle throttle = new StripedThrottle(1024, 1_000, 1_000, 3, 1_000, 8_000);
+        long now = 1_000_000;
+
+        // Act
+        throttle.recordFailure("alvo", now);
+        throttle.recordFailure("alvo", now);
+        assertEquals(0, throttle.tryAcquire("alvo", now));
+        throttle.recordFailure("alvo", now);
+        long firstLockout = throttle.tryAcquire("alvo", now);
+        throttle.recordFailure("alvo", now);
+        long secondLockout = throttle.tryAcquire("alvo", now);
+        for (int i = 0; i < 10; i++) {
+            throttle.recordFailure("alvo", now);
+        }
+
+        // Assert
+        assertEquals(1_000, firstLockout);
+        assertEquals(2_000, secondLockout);
+        assertEquals(8_000, throttle.tryAcquire("alvo", now));
+    }
+
+    @Test
+    void recordSuccess_ShouldResetConsecutiveFailures() {
+        // Arrange
+        StripedThrottle throttle = new StripedThrottle(1024, 1_000, 1_000, 2, 1_000, 8_000);
+        long now = 1_000_000;
+        throttle.recordFailure("vinicius.vmtech", now);
+
+        // Act
+        throttle.recordSuccess("vinicius.vmtech");
+        throttle.recordFailure("vinicius.vmtech", now);
+
+        // Assert
+        assertEquals(0, throttle.tryAcquire("vinicius.vmtech", now));
+        assertEquals(1024, throttle.stripes());
+    }
+
+    @Test
+    void recordFailure_ShouldForgetFailures_OlderThanLockoutWindow() {
+        // Arrange: bloqueio a partir de 2 falhas, janela de 8 s
+        StripedThrottle throttle = new StripedThrottle(1024, 1_000, 1_000, 2, 1_000, 8_000);
+        long now = 1_000_000;
+        throttle.recordFailure("vinicius.vmtech", now);
+
+        // Act
+        throttle.recordFailure("vinicius.vmtech", now + 8_001);
+        long afterPause = throttle.tryAcquire("vinicius.vmtech", now + 8_001);
+        throttle.recordFailure("vinicius.vmtech", now + 9_000);
+
+        // Assert
+        assertEquals(0, afterPause);
+        assertEquals(1_000, throttle.tryAcquire("vinicius.vmtech", now + 9_000));
+    }
+}